@@ -0,0 +1,254 @@
+package main;
+
+import ai.AI;
+import networking.Message;
+import networking.MessageCodec;
+import networking.NetworkClient;
+
+import java.util.Random;
+
+/**
+ * A Bot is a headless client for load testing the server. It connects the
+ * way Main does, asks for a game against a human or the AI, and plays off the
+ * states the server sends, moving either as AI.getMove says or to a script.
+ * It draws nothing and, outside lockstep, runs no physics of its own, so a
+ * single JVM can run thousands of them. When a game ends it starts another
+ * over a new connection, like a player going back to the menu.
+ *
+ * Everything it sees goes into its fleet's BotFleet.Stats: how long it took
+ * to connect and to get a seed, how far apart updates to its own game came
+ * (snapshots, whole states, checksums or input frames) and how many bytes
+ * of messages it received.
+ */
+class Bot extends NetworkClient implements Runnable {
+
+    /** How long to wait before connecting again after a failed connect. */
+    private static final long RETRY_MS = 1000;
+    /** How long to wait for a message before checking the connection is still up. */
+    private static final long POLL_MS = 100;
+    /** How long to stay connected once a game is over. */
+    private static final long GAME_OVER_MS = 1000;
+    /** Scripted moves are held for between these many updates. */
+    private static final int MIN_HOLD = 10, MAX_HOLD = 60;
+
+    private final BotFleet.Stats stats;
+    private final OpponentType opponentType;
+    private final boolean scripted;
+    private final Random random;
+    private volatile boolean stopped = false;
+
+    private SnapshotDecoder myGameSnapshots, oppGameSnapshots;
+    private GameState myGame, oppGame;
+    private int inputSeq;
+    private String heldMove;
+    private int heldFor;
+    private long seededAt, lastUpdate;
+    private boolean over;
+
+    /**
+     * @param stats Where to record what happens.
+     * @param opponentType Who to ask to play against.
+     * @param scripted Whether to move to a script rather than with AI.getMove.
+     * @param seed Seeds the script.
+     */
+    Bot(String host, int port, BotFleet.Stats stats, OpponentType opponentType, boolean scripted, long seed) {
+        super(host, port);
+        this.stats = stats;
+        this.opponentType = opponentType;
+        this.scripted = scripted;
+        this.random = new Random(seed);
+    }
+
+    @Override
+    public void run() {
+        while (!stopped) playGame();
+    }
+
+    /**
+     * Stop once the current game ends, or the next time it waits for a message.
+     */
+    void stop() {
+        stopped = true;
+    }
+
+    /**
+     * Connect, ask for a game and play it until it's over or the connection drops.
+     */
+    private void playGame() {
+        long start = System.nanoTime();
+        if (!initialize()) {
+            stats.connectFailed();
+            try {
+                Thread.sleep(RETRY_MS);
+            } catch (InterruptedException e) {
+                stopped = true;
+            }
+            return;
+        }
+        stats.connected(System.nanoTime() - start);
+
+        myGameSnapshots = new SnapshotDecoder();
+        oppGameSnapshots = new SnapshotDecoder();
+        myGame = oppGame = null;
+        inputSeq = 0;
+        heldFor = 0;
+        seededAt = lastUpdate = 0;
+        over = false;
+        long askedAt = System.nanoTime();
+        sendMessage(new Message(opponentType));
+
+        while (!stopped && !over) {
+            Message m = waitForMessage(POLL_MS);
+            if (m == null) {
+                if (!isConnected()) break;
+                continue;
+            }
+            long now = System.nanoTime();
+            stats.received(MessageCodec.HEADER_BYTES + MessageCodec.encodedSize(m));
+            if (m.getObject() instanceof Integer && seededAt == 0) {
+                seededAt = lastUpdate = now;
+                stats.seeded(now - askedAt);
+                if (Constants.LOCKSTEP) startGames((Integer) m.getObject());
+            }
+            receive(m, now);
+        }
+        if (over) lingerOnGameOver();
+        stats.disconnected(seededAt != 0, over, stopped);
+    }
+
+    /**
+     * Stay connected a moment after the game ends, as a player looking at the
+     * game over screen would, so that the opponent gets to see it end too
+     * rather than having its connection dropped when the match is torn down.
+     */
+    private void lingerOnGameOver() {
+        long leaveAt = System.nanoTime() + GAME_OVER_MS * 1_000_000;
+        while (!stopped && isConnected() && System.nanoTime() < leaveAt) {
+            Message m = waitForMessage(POLL_MS);
+            if (m != null) stats.received(MessageCodec.HEADER_BYTES + MessageCodec.encodedSize(m));
+        }
+    }
+
+    /**
+     * Handle one message, as Main.handleMessage does but without a window.
+     */
+    private void receive(Message m, long now) {
+        if (m.isDatagramToken()) {
+            if (Constants.UDP_SNAPSHOTS && !Constants.LOCKSTEP) openDatagrams(m.getDatagramToken());
+            return;
+        }
+        if (m.isInputFrame()) {
+            if (myGame == null) return;
+            applyInputFrame(m.getInputFrame());
+            updated(now);
+            return;
+        }
+        if (m.isChecksum()) {
+            updated(now);
+            return;
+        }
+
+        GameState game;
+        if (m.isSnapshot()) {
+            game = (m.isMyGame() ? myGameSnapshots : oppGameSnapshots).decode(m);
+            if (game == null) return;
+            sendMessage(Message.ack(m.isMyGame(), m.getSnapshotSeq()));
+        } else if (m.getObject() instanceof GameState) {
+            game = (GameState) m.getObject();
+        } else {
+            return;
+        }
+
+        if (m.isMyGame()) {
+            myGame = game;
+            updated(now);
+        } else {
+            oppGame = game;
+            if (oppGame.gameOver()) over = true;
+        }
+    }
+
+    /**
+     * Our own game has moved on: record how long since it last did, and move.
+     */
+    private void updated(long now) {
+        if (seededAt == 0) return;
+        stats.updated(now - lastUpdate);
+        lastUpdate = now;
+        if (myGame == null) return;
+        if (myGame.gameOver() || (oppGame != null && oppGame.gameOver())) {
+            over = true;
+            return;
+        }
+
+        String move = nextMove();
+        if (move == null) return;
+        if (Constants.CLIENT_PREDICTION && Constants.FIXED_TIMESTEP && !Constants.LOCKSTEP) {
+            sendMessage(Message.input(++inputSeq, move));
+        } else {
+            sendMessage(new Message(move));
+        }
+    }
+
+    /**
+     * The move to make now, or null for none.
+     */
+    private String nextMove() {
+        if (scripted) {
+            if (heldFor-- <= 0) {
+                String[] moves = {"a", "d", null};
+                heldMove = moves[random.nextInt(moves.length)];
+                heldFor = MIN_HOLD + random.nextInt(MAX_HOLD - MIN_HOLD);
+            }
+            return heldMove;
+        }
+        switch (AI.getMove(myGame)) {
+            case LEFT: return "a";
+            case RIGHT: return "d";
+            default: return null;
+        }
+    }
+
+    /**
+     * Lockstep: both games start from the seed and only move on as input frames arrive.
+     */
+    private void startGames(int seed) {
+        myGame = new GameState(Constants.WINDOW_WIDTH, Constants.WINDOW_HEIGHT);
+        myGame.setSeed(seed);
+        myGame.generatePlatforms();
+        myGame.generateItems();
+        myGame.getEvents().setEnabled(false);
+        oppGame = GameStateCodec.copy(myGame);
+        oppGame.getEvents().setEnabled(false);
+    }
+
+    /**
+     * Bring both games on by one server tick, as Main.applyInputFrame does.
+     * Checksums aren't checked: a bot that drifts just plays on.
+     */
+    private void applyInputFrame(InputFrame frame) {
+        if (frame.isMineFirst()) {
+            applyMoves(frame.getMyMoves(), myGame, oppGame);
+            applyMoves(frame.getOppMoves(), oppGame, myGame);
+        } else {
+            applyMoves(frame.getOppMoves(), oppGame, myGame);
+            applyMoves(frame.getMyMoves(), myGame, oppGame);
+        }
+        for (int step = 0; step < frame.getSteps(); step++) {
+            myGame.updatePhysics(Constants.SIM_TICK_MS);
+            oppGame.updatePhysics(Constants.SIM_TICK_MS);
+        }
+    }
+
+    private static void applyMoves(String[] moves, GameState own, GameState opponent) {
+        for (String move : moves) {
+            if (move.equals("PlatformDelete")) opponent.makeClosestPlatformUnusable();
+            else own.handleInput(move);
+        }
+    }
+
+    @Override
+    public void handleMessage(Message m) {
+        // Messages are taken one at a time in playGame instead.
+    }
+}
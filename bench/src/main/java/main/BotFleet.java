@@ -0,0 +1,233 @@
+package main;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Stress a running server end to end with a fleet of Bots, all from this one
+ * JVM. Bots are started at a steady rate until there are as many as asked
+ * for, and each plays game after game until the time is up. Every second it
+ * prints how many bots are connected and in a game, how many updates of
+ * their own games they're getting per second each, and how much they're
+ * receiving. At the end it prints the distributions of connect latency, time
+ * from asking for a game to getting the seed, and the gap between updates of
+ * a bot's own game, whose spread is the jitter a player would see.
+ *
+ * Each bot has its own connection thread and a thread of its own to play on,
+ * both with small stacks. Start the server (ServerMainNew) first.
+ *
+ * Usage: BotFleet [--bots N] [--rate N] [--seconds N] [--opponent HUMAN|AI] [--play ai|script]
+ *                 [--host HOST] [--port N]
+ *        (default 100 bots, 50 connecting a second, for 60 seconds, against the AI, playing with AI.getMove)
+ */
+public class BotFleet {
+
+    private static final long BOT_STACK_BYTES = 256 * 1024;
+
+    /**
+     * What all of a fleet's bots have seen, recorded from all their threads at once.
+     */
+    static final class Stats {
+        final Histogram connects = new Histogram(100_000, 100_000);      // 0.1 ms buckets, up to 10 s
+        final Histogram seeds = new Histogram(1_000_000, 60_000);        // 1 ms buckets, up to a minute
+        final Histogram updateGaps = new Histogram(100_000, 50_000);     // 0.1 ms buckets, up to 5 s
+        final LongAdder connectFailures = new LongAdder();
+        final LongAdder messages = new LongAdder();
+        final LongAdder bytes = new LongAdder();
+        final LongAdder gamesFinished = new LongAdder();
+        final LongAdder gamesDropped = new LongAdder();
+        /** Time spent in games so far, counted up to each bot's latest update. */
+        final LongAdder inGameNanos = new LongAdder();
+        final AtomicInteger connectedNow = new AtomicInteger();
+        final AtomicInteger inGameNow = new AtomicInteger();
+
+        void connected(long nanos) {
+            connects.record(nanos);
+            connectedNow.incrementAndGet();
+        }
+
+        void connectFailed() {
+            connectFailures.increment();
+        }
+
+        void seeded(long nanos) {
+            seeds.record(nanos);
+            inGameNow.incrementAndGet();
+        }
+
+        void updated(long gapNanos) {
+            updateGaps.record(gapNanos);
+            inGameNanos.add(gapNanos);
+        }
+
+        void received(int messageBytes) {
+            messages.increment();
+            bytes.add(messageBytes);
+        }
+
+        /**
+         * @param seeded Whether the game got as far as the seed.
+         * @param finished Whether the game ended properly.
+         * @param stopped Whether the bot left because the fleet was stopping;
+         *                otherwise an unfinished game means the connection dropped.
+         */
+        void disconnected(boolean seeded, boolean finished, boolean stopped) {
+            connectedNow.decrementAndGet();
+            if (seeded) inGameNow.decrementAndGet();
+            if (finished) gamesFinished.increment();
+            else if (!stopped) gamesDropped.increment();
+        }
+    }
+
+    /**
+     * Durations in fixed-width buckets. Anything past the last bucket goes in it.
+     */
+    static final class Histogram {
+        private final long nanosPerBucket;
+        private final AtomicLongArray buckets;
+        private final LongAdder count = new LongAdder();
+        private final DoubleAdder sumMs = new DoubleAdder();
+        private final DoubleAdder sumSquaresMs = new DoubleAdder();
+        private final AtomicLong max = new AtomicLong();
+
+        Histogram(long nanosPerBucket, int buckets) {
+            this.nanosPerBucket = nanosPerBucket;
+            this.buckets = new AtomicLongArray(buckets);
+        }
+
+        void record(long nanos) {
+            buckets.incrementAndGet((int) Math.min(buckets.length() - 1, nanos / nanosPerBucket));
+            count.increment();
+            double ms = nanos / 1e6;
+            sumMs.add(ms);
+            sumSquaresMs.add(ms * ms);
+            max.accumulateAndGet(nanos, Math::max);
+        }
+
+        long count() {
+            return count.sum();
+        }
+
+        double meanMs() {
+            long n = count();
+            return n == 0 ? 0 : sumMs.sum() / n;
+        }
+
+        double stdDevMs() {
+            long n = count();
+            if (n == 0) return 0;
+            double mean = meanMs();
+            return Math.sqrt(Math.max(0, sumSquaresMs.sum() / n - mean * mean));
+        }
+
+        /** The top of the bucket the given fraction of durations fall at or below. */
+        double percentileMs(double p) {
+            long n = count();
+            if (n == 0) return 0;
+            long rank = Math.max(1, (long) Math.ceil(p * n));
+            long seen = 0;
+            for (int i = 0; i < buckets.length(); i++) {
+                seen += buckets.get(i);
+                if (seen >= rank) return (i + 1) * nanosPerBucket / 1e6;
+            }
+            return buckets.length() * nanosPerBucket / 1e6;
+        }
+
+        double maxMs() {
+            return max.get() / 1e6;
+        }
+    }
+
+    public static void main(String... args) throws InterruptedException {
+        int bots = 100;
+        double rate = 50;
+        int seconds = 60;
+        OpponentType opponentType = OpponentType.AI;
+        boolean scripted = false;
+        String host = Constants.HOST;
+        int port = Constants.PORT;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--bots": bots = Integer.parseInt(args[++i]); break;
+                case "--rate": rate = Double.parseDouble(args[++i]); break;
+                case "--seconds": seconds = Integer.parseInt(args[++i]); break;
+                case "--opponent": opponentType = OpponentType.valueOf(args[++i]); break;
+                case "--play": scripted = args[++i].equals("script"); break;
+                case "--host": host = args[++i]; break;
+                case "--port": port = Integer.parseInt(args[++i]); break;
+                default:
+                    System.err.println("[ERROR] BotFleet.main : Unknown argument " + args[i]);
+                    System.exit(2);
+            }
+        }
+
+        Stats stats = new Stats();
+        List<Bot> fleet = new ArrayList<>();
+        long start = System.nanoTime();
+        long end = start + seconds * 1_000_000_000L;
+        long nextReport = start + 1_000_000_000L;
+        long lastMessages = 0, lastBytes = 0, lastUpdates = 0;
+
+        System.out.println("[INFO] BotFleet.main : " + bots + " bots against " + host + ":" + port + ", " + rate
+                + " connecting a second, playing " + (scripted ? "to a script" : "with AI.getMove") + " against " + opponentType + ".");
+        System.out.println("    s     bots  connected  in game  upd/s/bot   msgs/s     kB/s  failed");
+        while (true) {
+            long now = System.nanoTime();
+            if (now >= end) break;
+
+            // Start every bot that's due by now.
+            while (fleet.size() < bots && start + (long) (fleet.size() * 1e9 / rate) <= now) {
+                Bot bot = new Bot(host, port, stats, opponentType, scripted, fleet.size());
+                Thread thread = new Thread(null, bot, "Bot-" + fleet.size(), BOT_STACK_BYTES);
+                thread.setDaemon(true);
+                thread.start();
+                fleet.add(bot);
+            }
+
+            if (now >= nextReport) {
+                long messages = stats.messages.sum(), bytes = stats.bytes.sum(), updates = stats.updateGaps.count();
+                int inGame = stats.inGameNow.get();
+                System.out.printf("%5d %8d %10d %8d %10.1f %8d %8.0f %7d%n", (now - start) / 1_000_000_000L, fleet.size(),
+                        stats.connectedNow.get(), inGame, inGame == 0 ? 0.0 : (updates - lastUpdates) / (double) inGame,
+                        messages - lastMessages, (bytes - lastBytes) / 1e3, stats.connectFailures.sum());
+                lastMessages = messages;
+                lastBytes = bytes;
+                lastUpdates = updates;
+                nextReport += 1_000_000_000L;
+            }
+
+            long nextBot = fleet.size() < bots ? start + (long) (fleet.size() * 1e9 / rate) : Long.MAX_VALUE;
+            long wake = Math.min(end, Math.min(nextReport, nextBot));
+            long sleepNanos = wake - System.nanoTime();
+            if (sleepNanos > 0) Thread.sleep(sleepNanos / 1_000_000, (int) (sleepNanos % 1_000_000));
+        }
+        for (Bot bot : fleet) bot.stop();
+
+        double expectedGapMs = Constants.LOCKSTEP ? Constants.SRVR_MS_PER_UPDT
+                : Constants.SRVR_TICKS_PER_SNAPSHOT * Constants.SRVR_MS_PER_UPDT;
+        double inGameSeconds = stats.inGameNanos.sum() / 1e9;
+        System.out.println();
+        System.out.println("                      count     mean    p50      p99    p99.9      max  (ms)");
+        print("connect", stats.connects);
+        print("time to seed", stats.seeds);
+        print("own game update gap", stats.updateGaps);
+        System.out.printf("Update jitter (std dev of the gap): %.2f ms; the server's schedule is one every %.0f ms at most, more while a bot is moving.%n",
+                stats.updateGaps.stdDevMs(), expectedGapMs);
+        System.out.printf("Updates per bot per second in game: %.1f%n", inGameSeconds == 0 ? 0 : stats.updateGaps.count() / inGameSeconds);
+        System.out.printf("Received %d messages, %.1f MB, %.1f kB/s per bot in game%n", stats.messages.sum(),
+                stats.bytes.sum() / 1e6, inGameSeconds == 0 ? 0 : stats.bytes.sum() / 1e3 / inGameSeconds);
+        System.out.printf("Games: %d finished, %d dropped; %d failed connects%n", stats.gamesFinished.sum(),
+                stats.gamesDropped.sum(), stats.connectFailures.sum());
+        System.exit(0);
+    }
+
+    private static void print(String name, Histogram histogram) {
+        System.out.printf("%-20s %6d %8.1f %6.1f %8.1f %8.1f %8.1f%n", name, histogram.count(), histogram.meanMs(),
+                histogram.percentileMs(0.5), histogram.percentileMs(0.99), histogram.percentileMs(0.999), histogram.maxMs());
+    }
+}
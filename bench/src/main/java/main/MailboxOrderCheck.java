@@ -0,0 +1,159 @@
+package main;
+
+import networking.Message;
+import networking.MessageCodec;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Check that an OutboundMailbox sends frames in order while it coalesces game
+ * states. Game states of both games are offered in among seeds and checksums,
+ * with the mailbox drained at random points, and the frames that come out
+ * are checked against what was offered:
+ *
+ *  - seeds and checksums all come out, in the order they were offered,
+ *  - no frame comes out ahead of a frame of the other sort offered before it,
+ *  - a game's states come out in order, and the last state offered of each
+ *    game always comes out.
+ *
+ * Every message carries the number of its offer, so the order can be told
+ * from the frames alone. A fixed sequence whose result is worked out by hand
+ * is checked first. Prints OK if everything held, otherwise FAILED.
+ *
+ * Usage: MailboxOrderCheck [rounds] [seed]
+ */
+public class MailboxOrderCheck {
+
+    private static final int MY_STATE = 0, OPP_STATE = 1, SEED = 2, CHECKSUM = 3;
+
+    public static void main(String... args) throws IOException {
+        int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 1234;
+
+        boolean ok = checkFixed();
+        Random random = new Random(seed);
+        for (int round = 0; round < rounds && ok; round++) ok = checkRandom(random, round);
+
+        System.out.println(ok ? "OK" : "FAILED");
+        System.exit(ok ? 0 : 1);
+    }
+
+    /**
+     * Offer a known sequence and drain it all at once.
+     */
+    private static boolean checkFixed() throws IOException {
+        OutboundMailbox mailbox = new OutboundMailbox();
+        int[] kinds = {MY_STATE, CHECKSUM, MY_STATE, MY_STATE, SEED, OPP_STATE, MY_STATE, OPP_STATE, CHECKSUM};
+        for (int i = 0; i < kinds.length; i++) mailbox.offer(message(kinds[i], i));
+        List<Integer> sent = drain(mailbox, new ArrayList<Integer>());
+
+        // 3 replaces 2 in its place; 7 replaces 5, ahead of 6, as nothing ordered came between.
+        List<Integer> expected = new ArrayList<>();
+        for (int i : new int[] {0, 1, 3, 4, 7, 6, 8}) expected.add(i);
+        if (!sent.equals(expected)) {
+            System.err.println("[ERROR] MailboxOrderCheck.checkFixed : Sent " + sent + ", expected " + expected);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Offer a random mix, draining at random points, and check the rules held.
+     */
+    private static boolean checkRandom(Random random, int round) throws IOException {
+        OutboundMailbox mailbox = new OutboundMailbox();
+        int count = 1 + random.nextInt(60);
+        int[] kinds = new int[count];
+        List<Integer> sent = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            // Mostly states, as on a real connection.
+            int roll = random.nextInt(10);
+            kinds[i] = roll < 4 ? MY_STATE : roll < 7 ? OPP_STATE : roll < 9 ? CHECKSUM : SEED;
+            if (!mailbox.offer(message(kinds[i], i))) {
+                System.err.println("[ERROR] MailboxOrderCheck.checkRandom : Round " + round + " overflowed.");
+                return false;
+            }
+            if (random.nextInt(4) == 0) {
+                for (int n = random.nextInt(3); n > 0; n--) poll(mailbox, sent);
+            }
+        }
+        drain(mailbox, sent);
+
+        int lastOrdered = -1;
+        int[] lastState = {-1, -1};
+        for (int j = 0; j < sent.size(); j++) {
+            int index = sent.get(j);
+            int kind = kinds[index];
+            if (kind == SEED || kind == CHECKSUM) {
+                if (index <= lastOrdered) return fail(round, "ordered frame " + index + " out of order", sent);
+                lastOrdered = index;
+            } else {
+                if (index <= lastState[kind]) return fail(round, "state " + index + " after a newer one", sent);
+                lastState[kind] = index;
+            }
+            // Nothing of the other sort offered before this one may still be to come.
+            for (int k = j + 1; k < sent.size(); k++) {
+                int later = sent.get(k);
+                if (later < index && isOrdered(kinds[later]) != isOrdered(kind)) {
+                    return fail(round, index + " overtook " + later, sent);
+                }
+            }
+        }
+
+        for (int i = 0; i < count; i++) {
+            if (isOrdered(kinds[i]) && !sent.contains(i)) return fail(round, "ordered frame " + i + " lost", sent);
+        }
+        for (int game = MY_STATE; game <= OPP_STATE; game++) {
+            for (int i = count - 1; i >= 0; i--) {
+                if (kinds[i] != game) continue;
+                if (!sent.contains(i)) return fail(round, "latest state " + i + " never sent", sent);
+                break;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isOrdered(int kind) {
+        return kind == SEED || kind == CHECKSUM;
+    }
+
+    private static boolean fail(int round, String what, List<Integer> sent) {
+        System.err.println("[ERROR] MailboxOrderCheck.checkRandom : Round " + round + ": " + what + " in " + sent);
+        return false;
+    }
+
+    /**
+     * A message of some kind carrying the number of its offer.
+     */
+    private static Message message(int kind, int index) {
+        switch (kind) {
+            case MY_STATE: return Message.snapshot(true, index, Message.NO_BASELINE, new byte[0], 0);
+            case OPP_STATE: return Message.snapshot(false, index, Message.NO_BASELINE, new byte[0], 0);
+            case SEED: return new Message(index);
+            default: return Message.checksum(index, 0);
+        }
+    }
+
+    private static List<Integer> drain(OutboundMailbox mailbox, List<Integer> sent) throws IOException {
+        while (poll(mailbox, sent)) ;
+        return sent;
+    }
+
+    /**
+     * Send one frame, noting the number of the offer it came from.
+     * @return False if the mailbox was empty.
+     */
+    private static boolean poll(OutboundMailbox mailbox, List<Integer> sent) throws IOException {
+        ByteBuffer frame = mailbox.poll();
+        if (frame == null) return false;
+        Message m = MessageCodec.decodeFrame(frame);
+        if (m.isSnapshot()) sent.add(m.getSnapshotSeq());
+        else if (m.isChecksum()) sent.add(m.getChecksumTick());
+        else sent.add((Integer) m.getObject());
+        return true;
+    }
+}
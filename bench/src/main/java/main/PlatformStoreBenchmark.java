@@ -0,0 +1,138 @@
+package main;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare updating platforms as objects (a Platform[] of mixed subclasses,
+ * each updated through a virtual call, as GameState does) with updating the
+ * same platforms in a PlatformStore, at a few sizes. The ball is updated
+ * before the platforms every tick, as in GameState.updatePhysics. Before
+ * either is timed, both are run side by side from the same start to check
+ * they end up in exactly the same state.
+ *
+ * A call is one tick of every platform, so divide by the size for the time
+ * per platform. The games keep running from one call to the next, as they
+ * would in play.
+ *
+ * Usage: bench/build/install/bench/bin/bench PlatformStoreBenchmark -prof gc   (add -p size=N for other sizes)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlatformStoreBenchmark {
+
+    private static final int CHECK_TICKS = 2000;
+
+    @Param({"15", "1000", "100000"})
+    public int size;
+
+    private GameState objectGame, storeGame;
+    private Platform[] platforms;
+    private PlatformStore store;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if (!check(size)) {
+            throw new IllegalStateException("The store and the objects disagree at " + size + " platforms");
+        }
+        objectGame = newGame();
+        platforms = makePlatforms(size, 1);
+        storeGame = newGame();
+        store = new PlatformStore(size);
+        for (Platform platform : makePlatforms(size, 1)) store.add(platform);
+    }
+
+    @Benchmark
+    public int objects() {
+        objectGame.getBall().update(objectGame, Constants.SIM_TICK_MS);
+        for (Platform platform : platforms) platform.update(objectGame, Constants.SIM_TICK_MS);
+        return objectGame.score;
+    }
+
+    @Benchmark
+    public int store() {
+        storeGame.getBall().update(storeGame, Constants.SIM_TICK_MS);
+        store.update(storeGame, Constants.SIM_TICK_MS);
+        return storeGame.score;
+    }
+
+    /**
+     * Run both versions from the same start and compare everything they touch.
+     */
+    private static boolean check(int size) {
+        GameState objectGame = newGame();
+        objectGame.getEvents().setEnabled(true);
+        GameState storeGame = GameStateCodec.copy(objectGame);
+        Platform[] platforms = makePlatforms(size, 7);
+        PlatformStore store = new PlatformStore(size);
+        for (Platform platform : platforms) store.add(platform);
+
+        int bounces = 0;
+        for (int tick = 0; tick < CHECK_TICKS; tick++) {
+            objectGame.getBall().update(objectGame, Constants.SIM_TICK_MS);
+            for (Platform platform : platforms) platform.update(objectGame, Constants.SIM_TICK_MS);
+            storeGame.getBall().update(storeGame, Constants.SIM_TICK_MS);
+            store.update(storeGame, Constants.SIM_TICK_MS);
+
+            GameEvents events = objectGame.getEvents();
+            for (int i = 0; i < events.size(); i++) if (events.get(i) == GameEvents.BOUNCE) bounces++;
+            events.clear();
+            storeGame.getEvents().clear();
+        }
+        System.out.printf("%d platforms: both versions agree after %d ticks and %d bounces\n", size, CHECK_TICKS, bounces);
+
+        if (objectGame.score != storeGame.score) return false;
+        if (objectGame.getBall().getY() != storeGame.getBall().getY()) return false;
+        if (objectGame.getBall().getDy() != storeGame.getBall().getDy()) return false;
+        for (int i = 0; i < size; i++) {
+            if (platforms[i].x != store.getX(i) || platforms[i].y != store.getY(i)) return false;
+            if (platforms[i].noDraw != store.isNoDraw(i)) return false;
+        }
+        return true;
+    }
+
+    private static GameState newGame() {
+        GameState game = new GameState(Constants.WINDOW_WIDTH, Constants.WINDOW_HEIGHT);
+        game.setSeed(42);
+        game.generatePlatforms();
+        game.generateItems();
+        game.getEvents().setEnabled(false);
+        return game;
+    }
+
+    /**
+     * A mix of every kind of platform, stacked upwards from the ball so the
+     * ball keeps landing on them.
+     */
+    private static Platform[] makePlatforms(int size, int seed) {
+        GameRandom random = new GameRandom(seed);
+        Platform[] platforms = new Platform[size];
+        for (int i = 0; i < size; i++) {
+            int x = random.nextInt(Constants.WINDOW_WIDTH - 2 * Constants.PLATFORM_WIDTH);
+            int y = 400 - 100 * (i % 50);
+            switch (random.nextInt(4)) {
+                case 0: platforms[i] = new NormalPlatform(x, y, Constants.PLATFORM_WIDTH, Constants.PLATFORM_HEIGHT); break;
+                case 1: platforms[i] = new MovingHorizontallyPlatform(x, y, Constants.PLATFORM_WIDTH, Constants.PLATFORM_HEIGHT, x - 200, x + 200); break;
+                case 2: platforms[i] = new TrapPlatform(x, y, Constants.PLATFORM_WIDTH, Constants.PLATFORM_HEIGHT); break;
+                default: platforms[i] = new JumpOncePlatform(x, y, Constants.PLATFORM_WIDTH, Constants.PLATFORM_HEIGHT); break;
+            }
+        }
+        return platforms;
+    }
+}
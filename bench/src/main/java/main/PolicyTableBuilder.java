@@ -0,0 +1,178 @@
+package main;
+
+import ai.AI;
+import ai.PolicyTable;
+import ai.SearchAI;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Paths;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Build the PolicyTable the AI looks its moves up in. For every cell of the
+ * table we set up a game with the ball in the middle of the cell's buckets and
+ * a single normal platform where the cell says the target is. Then we play it
+ * out holding each of LEFT, RIGHT and NO_MOVE for the first half of the
+ * lookahead and following AI.getMove after, and once following AI.getMove
+ * throughout, scoring each with SearchAI.evaluate. That's done with the
+ * platform at a few points across the cell's offset buckets, since a few
+ * pixels can decide whether the ball clears a platform's edge. A move only
+ * goes in the table if it beats AI.getMove by MARGIN at all of them;
+ * otherwise the cell is left unknown and the AI falls back to AI.getMove
+ * there, so the table only holds the states where the heuristic clearly goes
+ * wrong. Cells are split between the common ForkJoinPool's threads.
+ *
+ * Usage: PolicyTableBuilder [file [horizonMs]]   (default Constants.AI_POLICY_TABLE 300)
+ */
+public class PolicyTableBuilder {
+
+    /** How many cells a task works through on its own rather than splitting. */
+    private static final int LEAF_CELLS = 4096;
+    /** Where everything but the ball and the target platform is kept out of the way. */
+    private static final int PARKED_Y = -100000;
+    private static final AI.Move[] HELD_MOVES = {AI.Move.LEFT, AI.Move.RIGHT, AI.Move.NO_MOVE};
+    /** How much better than AI.getMove a move has to do to go in the table. Much
+     *  less and the table overrules AI.getMove on noise, and the AI gets worse. */
+    private static final double MARGIN = 100;
+    /** Where in the offset buckets to try each cell, as fractions {x, y} of the way across. */
+    private static final double[][] SAMPLES = {{0.125, 0.25}, {0.875, 0.25}, {0.125, 0.75}, {0.875, 0.75}};
+
+    public static void main(String... args) throws IOException {
+        String file = args.length > 0 ? args[0] : Constants.AI_POLICY_TABLE;
+        int horizonMs = args.length > 1 ? Integer.parseInt(args[1]) : 300;
+        int steps = Math.max(1, horizonMs / Constants.SIM_TICK_MS);
+
+        ByteBuffer template = template();
+        byte[] codes = new byte[PolicyTable.CELLS];
+        long start = System.nanoTime();
+        ForkJoinPool.commonPool().invoke(new Build(template, steps, codes, 0, codes.length));
+        long ms = (System.nanoTime() - start) / 1000000;
+
+        int unknown = 0;
+        for (byte code : codes) if (code == PolicyTable.UNKNOWN) unknown++;
+        PolicyTable.write(Paths.get(file), codes);
+        System.out.println("[INFO] PolicyTableBuilder.main : Wrote " + codes.length + " cells (" + unknown
+                + " unknown) to " + file + " in " + ms + " ms on " + ForkJoinPool.commonPool().getParallelism() + " thread(s).");
+    }
+
+    /**
+     * A game with every platform and item parked far above the screen, for
+     * each rollout to start from.
+     */
+    private static ByteBuffer template() {
+        GameState game = new GameState(Constants.WINDOW_WIDTH, Constants.WINDOW_HEIGHT);
+        game.setSeed(0);
+        game.generatePlatforms();
+        game.generateItems();
+        Platform[] platforms = game.getBasicPlatforms();
+        for (int i = 0; i < platforms.length; i++) {
+            platforms[i].x = 0;
+            platforms[i].y = PARKED_Y - 100 * i;
+        }
+        for (Item item : game.getItems()) item.reset(0, PARKED_Y);
+
+        ByteBuffer buffer = ByteBuffer.allocate(GameStateCodec.encodedSize(game));
+        GameStateCodec.write(game, buffer);
+        buffer.flip();
+        return buffer.asReadOnlyBuffer();
+    }
+
+    private static final class Build extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final ByteBuffer template;
+        private final int steps;
+        private final byte[] codes;
+        private final int from, to;
+
+        Build(ByteBuffer template, int steps, byte[] codes, int from, int to) {
+            this.template = template;
+            this.steps = steps;
+            this.codes = codes;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > LEAF_CELLS) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new Build(template, steps, codes, from, mid), new Build(template, steps, codes, mid, to));
+                return;
+            }
+            ByteBuffer start = template.duplicate();
+            for (int cell = from; cell < to; cell++) codes[cell] = bestMove(start, steps, cell);
+        }
+    }
+
+    /**
+     * Try holding each move from a cell, against following AI.getMove all the
+     * way, at a few points spread over the cell's offset buckets.
+     * @return The code of the move that did best at every point, or UNKNOWN
+     *         if no move beat AI.getMove by MARGIN everywhere.
+     */
+    private static byte bestMove(ByteBuffer template, int steps, int cell) {
+        AI.Move agreed = null;
+        for (int sample = 0; sample < SAMPLES.length; sample++) {
+            double best = rollout(template, steps, cell, sample, null) + MARGIN;
+            AI.Move bestMove = null;
+            for (AI.Move move : HELD_MOVES) {
+                double value = rollout(template, steps, cell, sample, move);
+                if (value > best) {
+                    best = value;
+                    bestMove = move;
+                }
+            }
+            if (bestMove == null || (agreed != null && bestMove != agreed)) return PolicyTable.UNKNOWN;
+            agreed = bestMove;
+        }
+        return PolicyTable.codeOf(agreed);
+    }
+
+    /**
+     * Play a cell out, holding a move for the first half of the lookahead and
+     * following AI.getMove after that.
+     * @param sample Which of SAMPLES to put the platform at.
+     * @param held The move to hold, or null to follow AI.getMove from the start.
+     */
+    private static double rollout(ByteBuffer template, int steps, int cell, int sample, AI.Move held) {
+        template.rewind();
+        GameState sim = GameStateCodec.read(template);
+        sim.getEvents().setEnabled(false);
+
+        /* Unpick the cell into its buckets, last axis first. */
+        int rest = cell;
+        double offsetY = PolicyTable.OFFSET_Y.at(rest % PolicyTable.OFFSET_Y.count(), SAMPLES[sample][1]);
+        rest /= PolicyTable.OFFSET_Y.count();
+        double offsetX = PolicyTable.OFFSET_X.at(rest % PolicyTable.OFFSET_X.count(), SAMPLES[sample][0]);
+        rest /= PolicyTable.OFFSET_X.count();
+        double gravity = PolicyTable.GRAVITY.centre(rest % PolicyTable.GRAVITY.count());
+        rest /= PolicyTable.GRAVITY.count();
+        double dy = PolicyTable.BALL_DY.centre(rest % PolicyTable.BALL_DY.count());
+        rest /= PolicyTable.BALL_DY.count();
+        double dx = PolicyTable.BALL_DX.centre(rest % PolicyTable.BALL_DX.count());
+        rest /= PolicyTable.BALL_DX.count();
+        double x = PolicyTable.BALL_X.centre(rest);
+
+        /* Put the ball and the platform on screen, as far as the offset allows. */
+        Ball ball = sim.getBall();
+        double y = (Constants.WINDOW_HEIGHT - offsetY) / 2;
+        y = Math.max(ball.getRadius(), Math.min(Constants.WINDOW_HEIGHT - ball.getRadius() - 1, y));
+        ball.restore(x, y, dx, dy, gravity, 0, 0, false, false);
+        Platform target = sim.getBasicPlatforms()[1];
+        target.x = x + offsetX - Constants.PLATFORM_WIDTH / 2;
+        target.y = y + offsetY;
+
+        int startScore = sim.getScore();
+        for (int step = 0; step < steps; step++) {
+            AI.Move move = held != null && step < steps / 2 ? held : AI.getMove(sim);
+            if (move == AI.Move.LEFT) sim.handleInput("a");
+            else if (move == AI.Move.RIGHT) sim.handleInput("d");
+            sim.updatePhysics(Constants.SIM_TICK_MS);
+            if (sim.gameOver()) return SearchAI.DEAD + step;
+        }
+        return SearchAI.evaluate(sim, startScore);
+    }
+}
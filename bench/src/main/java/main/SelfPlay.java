@@ -0,0 +1,183 @@
+package main;
+
+import ai.PolicyTable;
+import ai.SearchAI;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Supplier;
+
+/**
+ * Play AI against AI headlessly, as fast as the CPU allows, to compare AI
+ * configurations and to keep an eye on how fast the simulation runs. Each
+ * match is a real Match between two AIPlayers, on simulated time with no
+ * sockets and no sleeping: every step is one SIM_TICK_MS physics step. Every
+ * pair of configurations plays the same seeds, 0 to games - 1, and matches
+ * are spread over a ForkJoinPool.
+ *
+ * A match ends when either ball hits the floor, and the other player wins; if
+ * both go on the same tick, or neither has by the tick limit, it's a draw.
+ * For each configuration it prints the win rate, how many ticks its games
+ * lasted on average and the spread of its scores. For each pairing it prints
+ * the physics steps simulated per second of CPU time, which, with greedy
+ * against greedy, is the simulation's throughput.
+ *
+ * Usage: SelfPlay [--games N] [--ticks N] [--threads N] [config...]
+ *   config: greedy | table | search[:DIFFICULTY[:budgetNs]]   (default greedy search)
+ */
+public class SelfPlay {
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    /** An AI set-up and how it's done so far. */
+    private static final class Config {
+        final String name;
+        final Supplier<Player> players;
+        int wins, losses, draws;
+        long survivedTicks;
+        final List<Integer> scores = new ArrayList<>();
+
+        Config(String name, Supplier<Player> players) {
+            this.name = name;
+            this.players = players;
+        }
+    }
+
+    /** How one match went. */
+    private static final class Result {
+        int oneTicks, twoTicks, oneScore, twoScore;
+        boolean oneOver, twoOver;
+        long cpuNanos;
+    }
+
+    public static void main(String... args) {
+        int games = 100;
+        int maxTicks = 20000;
+        int threads = Runtime.getRuntime().availableProcessors();
+        List<Config> configs = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--games": games = Integer.parseInt(args[++i]); break;
+                case "--ticks": maxTicks = Integer.parseInt(args[++i]); break;
+                case "--threads": threads = Integer.parseInt(args[++i]); break;
+                default: configs.add(parseConfig(args[i]));
+            }
+        }
+        if (configs.isEmpty()) {
+            configs.add(parseConfig("greedy"));
+            configs.add(parseConfig("search"));
+        }
+        if (configs.size() == 1) configs.add(new Config(configs.get(0).name + "'", configs.get(0).players));
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        long totalTicks = 0, totalCpuNanos = 0;
+        long start = System.nanoTime();
+        for (int a = 0; a < configs.size(); a++) {
+            for (int b = a + 1; b < configs.size(); b++) {
+                Config one = configs.get(a), two = configs.get(b);
+                List<ForkJoinTask<Result>> matches = new ArrayList<>();
+                for (int seed = 0; seed < games; seed++) {
+                    final int matchSeed = seed;
+                    final int limit = maxTicks;
+                    matches.add(pool.submit(() -> play(one, two, matchSeed, limit)));
+                }
+
+                long ticks = 0, cpuNanos = 0;
+                for (ForkJoinTask<Result> match : matches) {
+                    Result result = match.join();
+                    record(one, result.oneTicks, result.oneScore, result.oneOver, result.twoOver);
+                    record(two, result.twoTicks, result.twoScore, result.twoOver, result.oneOver);
+                    ticks += result.oneTicks + result.twoTicks;
+                    cpuNanos += result.cpuNanos;
+                }
+                System.out.printf("%s vs %s: %d matches, %d physics steps, %.0f steps/s per core%n",
+                        one.name, two.name, games, ticks, perSecond(ticks, cpuNanos));
+                totalTicks += ticks;
+                totalCpuNanos += cpuNanos;
+            }
+        }
+        pool.shutdown();
+        double wallSeconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.println();
+        System.out.println("config                      matches   win%   loss%   draw%   avg ticks   score p10 / p50 / p90 / max");
+        for (Config config : configs) {
+            int matches = config.wins + config.losses + config.draws;
+            int[] scores = new int[config.scores.size()];
+            for (int i = 0; i < scores.length; i++) scores[i] = config.scores.get(i);
+            Arrays.sort(scores);
+            System.out.printf("%-26s %8d %6.1f %7.1f %7.1f %11.0f   %d / %d / %d / %d%n",
+                    config.name, matches,
+                    100.0 * config.wins / matches, 100.0 * config.losses / matches, 100.0 * config.draws / matches,
+                    config.survivedTicks / (double) matches,
+                    percentile(scores, 10), percentile(scores, 50), percentile(scores, 90), scores[scores.length - 1]);
+        }
+        System.out.println();
+        System.out.printf("%d physics steps in %.1f s on %d thread(s): %.0f steps/s, %.0f steps/s per core%n",
+                totalTicks, wallSeconds, threads, totalTicks / wallSeconds, perSecond(totalTicks, totalCpuNanos));
+    }
+
+    /**
+     * Play one match to the end, or to the tick limit.
+     */
+    private static Result play(Config one, Config two, int seed, int maxTicks) {
+        long cpuStart = THREADS.getCurrentThreadCpuTime();
+        Match match = new Match(one.players.get(), two.players.get(), seed, true);
+        match.start();
+        GameState oneGame = match.getPlayerOneGameState();
+        GameState twoGame = match.getPlayerTwoGameState();
+        while (!oneGame.gameOver() && !twoGame.gameOver() && oneGame.tick < maxTicks) {
+            if (!match.step()) break;
+        }
+
+        Result result = new Result();
+        result.oneTicks = oneGame.tick;
+        result.twoTicks = twoGame.tick;
+        result.oneScore = oneGame.getScore();
+        result.twoScore = twoGame.getScore();
+        result.oneOver = oneGame.gameOver();
+        result.twoOver = twoGame.gameOver();
+        result.cpuNanos = THREADS.getCurrentThreadCpuTime() - cpuStart;
+        return result;
+    }
+
+    private static void record(Config config, int ticks, int score, boolean lost, boolean opponentLost) {
+        if (lost == opponentLost) config.draws++;
+        else if (lost) config.losses++;
+        else config.wins++;
+        config.survivedTicks += ticks;
+        config.scores.add(score);
+    }
+
+    private static Config parseConfig(String spec) {
+        String[] parts = spec.split(":");
+        switch (parts[0]) {
+            case "greedy":
+                return new Config(spec, () -> new AIPlayer((SearchAI) null));
+            case "table":
+                PolicyTable table = PolicyTable.shared();
+                if (table == null) throw new IllegalArgumentException("No policy table at " + Constants.AI_POLICY_TABLE);
+                return new Config(spec, () -> new AIPlayer(table));
+            case "search":
+                SearchAI.Difficulty difficulty = parts.length > 1
+                        ? SearchAI.Difficulty.valueOf(parts[1]) : SearchAI.Difficulty.valueOf(Constants.AI_DIFFICULTY);
+                long budget = parts.length > 2 ? Long.parseLong(parts[2]) : Constants.AI_SEARCH_BUDGET_NS;
+                return new Config(spec, () -> new AIPlayer(new SearchAI(budget, difficulty)));
+            default:
+                throw new IllegalArgumentException("Unknown AI configuration: " + spec);
+        }
+    }
+
+    private static int percentile(int[] sorted, int percent) {
+        return sorted[Math.min(sorted.length - 1, sorted.length * percent / 100)];
+    }
+
+    private static double perSecond(long ticks, long cpuNanos) {
+        return cpuNanos > 0 ? ticks / (cpuNanos / 1e9) : 0;
+    }
+}
@@ -0,0 +1,94 @@
+package main;
+
+import ai.AI;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Check that a running GameState doesn't allocate: play games headlessly,
+ * with the AI picking moves, and count the bytes allocated by each tick
+ * (handleInput and updatePhysics, as the server runs them) using the JVM's
+ * per-thread allocation counter. The AI itself isn't counted.
+ *
+ * GameState fills its pools of platforms and items when it generates them,
+ * so every tick should allocate nothing. The first WARMUP_TICKS aren't
+ * counted, to keep class loading and the JIT settling in (which can allocate
+ * when it recompiles) out of the numbers. Prints OK if no tick allocated,
+ * otherwise FAILED.
+ *
+ * Needs a HotSpot-based JVM for the allocation counter.
+ *
+ * Usage: SimAllocationCheck [ticks] [seed]
+ */
+public class SimAllocationCheck {
+
+    private static final int WARMUP_TICKS = 500_000;
+
+    public static void main(String... args) {
+        int ticks = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int seed = args.length > 1 ? Integer.parseInt(args[1]) : 1234;
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        if (!threads.isThreadAllocatedMemorySupported()) {
+            System.err.println("[ERROR] SimAllocationCheck.main : This JVM can't count allocations per thread.");
+            System.exit(2);
+        }
+        threads.setThreadAllocatedMemoryEnabled(true);
+        long thread = Thread.currentThread().getId();
+
+        // What reading the counter costs by itself, to take off every reading.
+        long overhead = Long.MAX_VALUE;
+        for (int i = 0; i < 1000; i++) {
+            long before = threads.getThreadAllocatedBytes(thread);
+            overhead = Math.min(overhead, threads.getThreadAllocatedBytes(thread) - before);
+        }
+
+        long warmupTicks = 0, measuredTicks = 0, allocatingTicks = 0, totalBytes = 0, worstBytes = 0;
+        int games = 0;
+        while (measuredTicks < ticks) {
+            GameState game = newGame(seed + games++);
+            while (!game.gameOver() && measuredTicks < ticks) {
+                String move = moveFor(AI.getMove(game));
+
+                long before = threads.getThreadAllocatedBytes(thread);
+                if (move != null) game.handleInput(move);
+                game.updatePhysics(Constants.SIM_TICK_MS);
+                long bytes = threads.getThreadAllocatedBytes(thread) - before - overhead;
+
+                if (warmupTicks < WARMUP_TICKS) {
+                    warmupTicks++;
+                    continue;
+                }
+                measuredTicks++;
+                if (bytes > 0) {
+                    allocatingTicks++;
+                    totalBytes += bytes;
+                    worstBytes = Math.max(worstBytes, bytes);
+                }
+            }
+        }
+
+        System.out.printf("%d games, %d ticks measured after %d warm-up ticks\n", games, measuredTicks, warmupTicks);
+        System.out.printf("%d ticks allocated, %d bytes in total, %d bytes at most in one tick\n",
+                allocatingTicks, totalBytes, worstBytes);
+        System.out.println(allocatingTicks == 0 ? "OK" : "FAILED");
+        System.exit(allocatingTicks == 0 ? 0 : 1);
+    }
+
+    private static GameState newGame(int seed) {
+        GameState game = new GameState(Constants.WINDOW_WIDTH, Constants.WINDOW_HEIGHT);
+        game.setSeed(seed);
+        game.generatePlatforms();
+        game.generateItems();
+        game.getEvents().setEnabled(false);
+        return game;
+    }
+
+    private static String moveFor(AI.Move move) {
+        switch (move) {
+            case LEFT: return "a";
+            case RIGHT: return "d";
+            default: return null;
+        }
+    }
+}
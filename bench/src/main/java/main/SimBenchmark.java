@@ -0,0 +1,278 @@
+package main;
+
+import ai.AI;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark the simulation's hot paths: a whole GameState.updatePhysics,
+ * Ball.update, each kind of platform's update and checkForCollision,
+ * Item.update, generating platforms and items, getClosestPlatform and
+ * AI.getMove. Each runs at a few platform counts and with each power-up in
+ * effect (none, fly, gravity up, gravity down).
+ *
+ * Calls are made on STATES game states taken from games the AI was playing,
+ * with the power-up applied by the item that gives it. Before each
+ * invocation every game is put back the way it was with
+ * GameStateCodec.readInto, which doesn't allocate, so the GC profiler's
+ * figures are the simulation's own. An invocation makes the call on every
+ * game, and results are per game: for the platform and item benchmarks,
+ * that's every platform of the kind, or every item, in it.
+ *
+ * Usage: bench/build/install/bench/bin/bench SimBenchmark -prof gc
+ *        (add -p platforms=15 -p powerUp=none to run fewer cases,
+ *        and -rf json -rff FILE to keep the results to compare against)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SimBenchmark {
+
+    /** How many different game states the calls are spread over. */
+    static final int STATES = 256;
+    /** How many ticks apart the game states are taken. */
+    private static final int STATE_INTERVAL = 37;
+
+    private static final double DELTA_TIME = Constants.SIM_TICK_MS * Constants.TIME_STEP_COEFFICIENT;
+
+    /** Up to GameStateCodec.MAX_PLATFORMS, the most a game state can hold. */
+    @Param({"15", "100", "255"})
+    public int platforms;
+
+    @Param({"none", "fly", "gravity-up", "gravity-down"})
+    public String powerUp;
+
+    private ByteBuffer[] states;
+    private GameState[] games;
+
+    @Setup(Level.Trial)
+    public void takeStates() {
+        states = states(platforms, powerUpItem(powerUp));
+        games = new GameState[STATES];
+        for (int i = 0; i < STATES; i++) {
+            states[i].rewind();
+            games[i] = GameStateCodec.read(states[i]);
+            games[i].getEvents().setEnabled(false);
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void restoreGames() {
+        for (int i = 0; i < STATES; i++) {
+            states[i].rewind();
+            GameStateCodec.readInto(states[i], games[i]);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STATES)
+    public void updatePhysics() {
+        for (GameState game : games) game.updatePhysics(Constants.SIM_TICK_MS);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STATES)
+    public void ballUpdate() {
+        for (GameState game : games) game.getBall().update(game, Constants.SIM_TICK_MS);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STATES)
+    public void normalPlatformUpdate() {
+        updatePlatforms(NormalPlatform.class);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STATES)
+    public void normalPlatformCheckForCollision() {
+        checkPlatforms(NormalPlatform.class);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STATES)
+    public void movingHorizontallyPlatformUpdate() {
+        updatePlatforms(MovingHorizontallyPlatform.class);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STATES)
+    public void movingHorizontallyPlatformCheckForCollision() {
+        checkPlatforms(MovingHorizontallyPlatform.class);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STATES)
+    public void trapPlatformUpdate() {
+        updatePlatforms(TrapPlatform.class);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STATES)
+    public void trapPlatformCheckForCollision() {
+        checkPlatforms(TrapPlatform.class);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STATES)
+    public void jumpOncePlatformUpdate() {
+        updatePlatforms(JumpOncePlatform.class);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STATES)
+    public void jumpOncePlatformCheckForCollision() {
+        checkPlatforms(JumpOncePlatform.class);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STATES)
+    public void itemUpdate() {
+        for (GameState game : games) {
+            for (Item item : game.getItems()) {
+                if (item != null) item.update(game, Constants.SIM_TICK_MS);
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STATES)
+    public void getClosestPlatform(Blackhole blackhole) {
+        for (GameState game : games) blackhole.consume(game.getClosestPlatform());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STATES)
+    public void aiGetMove(Blackhole blackhole) {
+        for (GameState game : games) blackhole.consume(AI.getMove(game));
+    }
+
+    /**
+     * Brand new games for the generation benchmarks, with platforms already
+     * generated for generateItems. Making them isn't timed, but the GC
+     * profiler can't tell it apart, so its figures for those two include
+     * building STATES games.
+     */
+    @State(Scope.Thread)
+    public static class FreshGames {
+        GameState[] games = new GameState[STATES];
+        private int seed;
+
+        @Setup(Level.Invocation)
+        public void make(SimBenchmark benchmark) {
+            for (int i = 0; i < STATES; i++) {
+                games[i] = new GameState(Constants.WINDOW_WIDTH, Constants.WINDOW_HEIGHT, benchmark.platforms);
+                games[i].setSeed(seed++);
+                games[i].getEvents().setEnabled(false);
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class FreshGamesWithPlatforms extends FreshGames {
+
+        @Setup(Level.Invocation)
+        public void generate() {
+            for (GameState game : games) game.generatePlatforms();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STATES)
+    public void generatePlatforms(FreshGames fresh) {
+        for (GameState game : fresh.games) game.generatePlatforms();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STATES)
+    public void generateItems(FreshGamesWithPlatforms fresh) {
+        for (GameState game : fresh.games) game.generateItems();
+    }
+
+    private void updatePlatforms(Class<? extends Platform> kind) {
+        for (GameState game : games) {
+            for (Platform platform : game.getBasicPlatforms()) {
+                if (platform != null && platform.getClass() == kind) platform.update(game, Constants.SIM_TICK_MS);
+            }
+        }
+    }
+
+    private void checkPlatforms(Class<? extends Platform> kind) {
+        for (GameState game : games) {
+            Ball ball = game.getBall();
+            for (Platform platform : game.getBasicPlatforms()) {
+                if (platform != null && platform.getClass() == kind) platform.checkForCollision(ball, game, DELTA_TIME);
+            }
+        }
+    }
+
+    /**
+     * The type of the item that gives a power-up, or 0 for none.
+     */
+    private static int powerUpItem(String powerUp) {
+        switch (powerUp) {
+            case "none": return 0;
+            case "fly": return 3;
+            case "gravity-up": return 2;
+            case "gravity-down": return 1;
+            default: throw new IllegalArgumentException("Unknown power-up: " + powerUp);
+        }
+    }
+
+    /**
+     * Game states to call the benchmarks on, taken every STATE_INTERVAL ticks
+     * from games the AI plays, with a power-up applied to each.
+     * @param powerUp The type of the item giving the power-up, or 0 for none.
+     */
+    static ByteBuffer[] states(int platforms, int powerUp) {
+        if (platforms < 1 || platforms > GameStateCodec.MAX_PLATFORMS) {
+            throw new IllegalArgumentException("platforms must be between 1 and " + GameStateCodec.MAX_PLATFORMS
+                    + ", the most a game state can hold; got " + platforms);
+        }
+        ByteBuffer[] states = new ByteBuffer[STATES];
+        int seed = 0;
+        GameState game = null;
+        for (int taken = 0; taken < STATES; ) {
+            if (game == null || game.gameOver()) {
+                game = new GameState(Constants.WINDOW_WIDTH, Constants.WINDOW_HEIGHT, platforms);
+                game.setSeed(seed++);
+                game.generatePlatforms();
+                game.generateItems();
+                game.getEvents().setEnabled(false);
+            }
+            for (int tick = 0; tick < STATE_INTERVAL && !game.gameOver(); tick++) {
+                AI.Move move = AI.getMove(game);
+                if (move == AI.Move.LEFT) game.handleInput("a");
+                else if (move == AI.Move.RIGHT) game.handleInput("d");
+                game.updatePhysics(Constants.SIM_TICK_MS);
+            }
+            if (game.gameOver()) continue;
+
+            GameState state = GameStateCodec.copy(game);
+            if (powerUp != 0) Item.create(powerUp, 0, 0).performAction(state);
+            ByteBuffer buffer = ByteBuffer.allocate(GameStateCodec.encodedSize(state));
+            GameStateCodec.write(state, buffer);
+            buffer.flip();
+            states[taken++] = buffer;
+        }
+        return states;
+    }
+}
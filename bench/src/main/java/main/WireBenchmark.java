@@ -0,0 +1,256 @@
+package main;
+
+import ai.AI;
+import networking.Message;
+import networking.MessageCodec;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark getting a game state from the server to a client, each way the
+ * server can send one: a whole GameState message, a keyframe snapshot, a
+ * delta snapshot against the state one server update before, and the
+ * checksum sent instead while the client's own game matches. Encoding is what
+ * HumanPlayer and OutboundMailbox do, the snapshot encoder (or the checksum)
+ * and MessageCodec.encodeFrame; decoding is what NetworkEngine.run and Main
+ * do, MessageCodec.readFrame off a stream and then the snapshot decoder.
+ * Java serialization isn't here as it's no longer on the wire at all.
+ *
+ * The game states come from games the AI was playing, one server update
+ * apart, so they have moving platforms, traps and whatever items had spawned.
+ * Deltas are sent and acknowledged one after another through the same
+ * encoder, as a client that gets everything would see them, so the keyframe
+ * still sent every SNAPSHOT_KEYFRAME_INTERVAL is in their figures. Decoding
+ * reads back a stream of the frames encoded in setup; when it runs out it
+ * starts again with a new snapshot decoder, which is all it allocates beyond
+ * the decoding itself.
+ *
+ * Running main instead says what's in the game states and how many bytes
+ * each way of sending takes per message.
+ *
+ * Usage: bench/build/install/bench/bin/bench WireBenchmark -prof gc   (add -p platforms=N for bigger games)
+ *        java -cp "bench/build/install/bench/lib/*" main.WireBenchmark [platforms]
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WireBenchmark {
+
+    /** How many game states are sent, one server update apart. */
+    private static final int STATES = 256;
+    /** How many ticks each game is played before its states are taken. */
+    private static final int STATE_INTERVAL = 37;
+
+    /** Up to GameStateCodec.MAX_PLATFORMS, the most a game state can hold. */
+    @Param({"15"})
+    public int platforms;
+
+    private GameState[] states;
+    private int next;
+
+    private SnapshotEncoder keyframes, deltas;
+
+    private Stream wholeStates, keyframeStream, deltaStream, checksums;
+
+    /** Frames encoded in setup, read back one at a time by the decode benchmarks. */
+    private static final class Stream {
+        private final ByteArrayInputStream bytes;
+        private final DataInputStream in;
+        final int frames, size;
+        SnapshotDecoder decoder = new SnapshotDecoder();
+
+        Stream(ByteBuffer[] frames) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            for (ByteBuffer frame : frames) out.write(frame.array(), frame.arrayOffset(), frame.limit());
+            this.frames = frames.length;
+            this.size = out.size();
+            this.bytes = new ByteArrayInputStream(out.toByteArray());
+            this.in = new DataInputStream(bytes);
+        }
+
+        Message read() throws IOException {
+            if (bytes.available() == 0) {
+                bytes.reset();
+                decoder = new SnapshotDecoder();
+            }
+            return MessageCodec.readFrame(in);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void takeStates() {
+        states = states(platforms);
+        keyframes = new SnapshotEncoder(true);
+        deltas = new SnapshotEncoder(true);
+
+        ByteBuffer[] whole = new ByteBuffer[STATES], key = new ByteBuffer[STATES],
+                delta = new ByteBuffer[STATES], checksum = new ByteBuffer[STATES];
+        SnapshotEncoder keyEncoder = new SnapshotEncoder(true), deltaEncoder = new SnapshotEncoder(true);
+        for (int i = 0; i < STATES; i++) {
+            whole[i] = MessageCodec.encodeFrame(new Message(states[i], true));
+            key[i] = MessageCodec.encodeFrame(keyEncoder.encode(states[i]));
+            delta[i] = encodeDelta(deltaEncoder, states[i]);
+            checksum[i] = MessageCodec.encodeFrame(Message.checksum(states[i].tick, StateChecksum.of(states[i])));
+        }
+        wholeStates = new Stream(whole);
+        keyframeStream = new Stream(key);
+        deltaStream = new Stream(delta);
+        checksums = new Stream(checksum);
+    }
+
+    private GameState nextState() {
+        GameState state = states[next];
+        next = (next + 1) % STATES;
+        return state;
+    }
+
+    private static ByteBuffer encodeDelta(SnapshotEncoder encoder, GameState state) {
+        Message m = encoder.encode(state);
+        encoder.acknowledge(m.getSnapshotSeq());
+        return MessageCodec.encodeFrame(m);
+    }
+
+    @Benchmark
+    public ByteBuffer encodeWholeState() {
+        return MessageCodec.encodeFrame(new Message(nextState(), true));
+    }
+
+    /** Snapshots that are never acknowledged, so they're always keyframes. */
+    @Benchmark
+    public ByteBuffer encodeKeyframe() {
+        return MessageCodec.encodeFrame(keyframes.encode(nextState()));
+    }
+
+    @Benchmark
+    public ByteBuffer encodeDelta() {
+        return encodeDelta(deltas, nextState());
+    }
+
+    @Benchmark
+    public ByteBuffer encodeChecksum() {
+        GameState state = nextState();
+        return MessageCodec.encodeFrame(Message.checksum(state.tick, StateChecksum.of(state)));
+    }
+
+    @Benchmark
+    public Object decodeWholeState() throws IOException {
+        return wholeStates.read().getObject();
+    }
+
+    @Benchmark
+    public GameState decodeKeyframe() throws IOException {
+        return decodeSnapshot(keyframeStream);
+    }
+
+    @Benchmark
+    public GameState decodeDelta() throws IOException {
+        return decodeSnapshot(deltaStream);
+    }
+
+    @Benchmark
+    public Message decodeChecksum() throws IOException {
+        return checksums.read();
+    }
+
+    private static GameState decodeSnapshot(Stream stream) throws IOException {
+        Message m = stream.read();
+        GameState state = stream.decoder.decode(m);
+        if (state == null) throw new IllegalStateException("Snapshot " + m.getSnapshotSeq() + " didn't decode");
+        return state;
+    }
+
+    public static void main(String... args) {
+        WireBenchmark benchmark = new WireBenchmark();
+        benchmark.platforms = args.length > 0 ? Integer.parseInt(args[0]) : GameState.PLATFORMS;
+        benchmark.takeStates();
+        describe(benchmark.states);
+
+        String[] names = {"GameState message", "Keyframe snapshot", "Delta snapshot", "Checksum"};
+        Stream[] streams = {benchmark.wholeStates, benchmark.keyframeStream, benchmark.deltaStream, benchmark.checksums};
+        System.out.printf("%n%-20s %8s%n", "message", "B/msg");
+        for (int i = 0; i < streams.length; i++) {
+            System.out.printf("%-20s %8.1f%n", names[i], streams[i].size / (double) streams[i].frames);
+        }
+    }
+
+    /**
+     * Game states from games the AI plays, one server update apart once each
+     * game has been going STATE_INTERVAL ticks.
+     */
+    private static GameState[] states(int platforms) {
+        if (platforms < 1 || platforms > GameStateCodec.MAX_PLATFORMS) {
+            throw new IllegalArgumentException("platforms must be between 1 and " + GameStateCodec.MAX_PLATFORMS
+                    + ", the most a game state can hold; got " + platforms);
+        }
+        int steps = Math.max(1, Constants.SRVR_MS_PER_UPDT / Constants.SIM_TICK_MS);
+        GameState[] states = new GameState[STATES];
+        int seed = 0;
+        GameState game = null;
+        for (int taken = 0; taken < STATES; ) {
+            if (game == null || game.gameOver()) {
+                game = new GameState(Constants.WINDOW_WIDTH, Constants.WINDOW_HEIGHT, platforms);
+                game.setSeed(seed++);
+                game.generatePlatforms();
+                game.generateItems();
+                game.getEvents().setEnabled(false);
+                play(game, STATE_INTERVAL);
+            }
+            play(game, steps);
+            if (game.gameOver()) continue;
+            states[taken++] = GameStateCodec.copy(game);
+        }
+        return states;
+    }
+
+    private static void play(GameState game, int ticks) {
+        for (int tick = 0; tick < ticks && !game.gameOver(); tick++) {
+            AI.Move move = AI.getMove(game);
+            if (move == AI.Move.LEFT) game.handleInput("a");
+            else if (move == AI.Move.RIGHT) game.handleInput("d");
+            game.updatePhysics(Constants.SIM_TICK_MS);
+        }
+    }
+
+    /**
+     * Say what's in the game states, to show they're like the ones a real
+     * server sends.
+     */
+    private static void describe(GameState[] states) {
+        Map<String, Integer> kinds = new TreeMap<>();
+        for (GameState state : states) {
+            for (Platform platform : state.getBasicPlatforms()) {
+                if (platform != null) kinds.merge(platform.getClass().getSimpleName(), 1, Integer::sum);
+            }
+            for (Item item : state.getItems()) {
+                if (item != null) kinds.merge(item.getClass().getSimpleName(), 1, Integer::sum);
+            }
+        }
+        System.out.println(states.length + " game states, on average holding:");
+        for (Map.Entry<String, Integer> kind : kinds.entrySet()) {
+            System.out.printf("  %6.2f %s%n", kind.getValue() / (double) states.length, kind.getKey());
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package networking.demo;
+
+import main.GameState;
+import main.OpponentType;
+import networking.Message;
+import networking.MessageCodec;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compare the blocking server on platform threads with the same server on
+ * virtual threads (ServerMainNew --blocking vs --blocking --virtual). For
+ * each mode a server is started in a separate JVM, then loaded with more and
+ * more clients, a step at a time. After each step we measure for a while and
+ * print:
+ *
+ *  - how many clients are healthy, i.e. got their seed and kept getting
+ *    their own game during the measurement,
+ *  - the p50/p99/max gap between a client's consecutive game states, which is
+ *    how late the server's ticks are as far as a player can tell,
+ *  - the server's resident memory and OS thread count (Linux only).
+ *
+ * The ramp stops when clients start going unhealthy or the p99 gap passes
+ * MAX_P99_MS; the last step before that is the mode's capacity. All the
+ * clients are driven from this one thread with a selector, so the client side
+ * doesn't distort the thread counts.
+ *
+ * Usage: ServerThreadsBenchmark [maxClients] [step] [HUMAN|AI] [measureMs]
+ */
+public class ServerThreadsBenchmark {
+
+    private static final int PORT = 8080;
+    private static final int MAX_P99_MS = 250;
+    private static final int HISTOGRAM_MS = 5000;
+
+    private final int maxClients;
+    private final int step;
+    private final OpponentType opponentType;
+    private final int measureMs;
+
+    private Selector selector;
+    private final List<Client> clients = new ArrayList<>();
+    private final int[] gapHistogram = new int[HISTOGRAM_MS + 1];
+    private long gapCount = 0;
+
+    private ServerThreadsBenchmark(int maxClients, int step, OpponentType opponentType, int measureMs) {
+        this.maxClients = maxClients;
+        this.step = step;
+        this.opponentType = opponentType;
+        this.measureMs = measureMs;
+    }
+
+    public static void main(String... args) throws Exception {
+        int maxClients = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int step = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        OpponentType opponentType = args.length > 2 ? OpponentType.valueOf(args[2]) : OpponentType.HUMAN;
+        int measureMs = args.length > 3 ? Integer.parseInt(args[3]) : 3000;
+
+        ServerThreadsBenchmark benchmark = new ServerThreadsBenchmark(maxClients, step, opponentType, measureMs);
+        int platform = benchmark.runMode(false);
+        boolean virtualAvailable;
+        try {
+            Thread.class.getMethod("ofVirtual");
+            virtualAvailable = true;
+        } catch (NoSuchMethodException e) {
+            virtualAvailable = false;
+        }
+        if (!virtualAvailable) {
+            System.out.println("\nThis runtime has no virtual threads (Java 21+ needed); only platform threads were measured.");
+            System.out.printf("Capacity: platform %d clients\n", platform);
+            return;
+        }
+        int virtual = benchmark.runMode(true);
+        System.out.printf("\nCapacity: platform %d clients, virtual %d clients\n", platform, virtual);
+    }
+
+    /**
+     * Start a server in the given mode and ramp clients up against it.
+     * @return The most clients the server kept healthy.
+     */
+    private int runMode(boolean virtual) throws Exception {
+        System.out.printf("\n=== %s threads ===\n", virtual ? "Virtual" : "Platform");
+        File log = File.createTempFile("ServerThreadsBenchmark", ".log");
+        log.deleteOnExit();
+        List<String> command = new ArrayList<>();
+        command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add("main.ServerMainNew");
+        command.add("--blocking");
+        if (virtual) command.add("--virtual");
+        Process server = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log).start();
+
+        int capacity = 0;
+        try {
+            waitForServer();
+            selector = Selector.open();
+            System.out.println(" clients  healthy  p50(ms)  p99(ms)  max(ms)   rss(MB)  threads");
+            for (int target = step; target <= maxClients; target += step) {
+                if (!connectUpTo(target)) {
+                    System.out.println("Couldn't open any more connections; stopping.");
+                    break;
+                }
+                measure();
+                int healthy = countHealthy();
+                int p99 = percentile(0.99);
+                System.out.printf("%8d %8d %8d %8d %8d %9s %8s\n", clients.size(), healthy, percentile(0.5), p99,
+                        percentile(1.0), serverStatus(server, "VmRSS:", 1024), serverStatus(server, "Threads:", 1));
+                if (healthy < clients.size() * 0.99 || p99 > MAX_P99_MS) break;
+                capacity = clients.size();
+            }
+        } finally {
+            for (Client client : clients) {
+                try {
+                    client.channel.close();
+                } catch (IOException ignored) {}
+            }
+            clients.clear();
+            if (selector != null) selector.close();
+            server.destroy();
+            server.waitFor();
+        }
+        return capacity;
+    }
+
+    private void waitForServer() throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            try {
+                SocketChannel.open(new InetSocketAddress("localhost", PORT)).close();
+                return;
+            } catch (IOException e) {
+                Thread.sleep(100);
+            }
+        }
+        throw new IllegalStateException("Server didn't start listening on port " + PORT);
+    }
+
+    /**
+     * Open connections until there are target of them, keeping the existing
+     * ones read while we do.
+     * @return False if a connection couldn't be opened.
+     */
+    private boolean connectUpTo(int target) throws IOException {
+        while (clients.size() < target) {
+            try {
+                SocketChannel channel = SocketChannel.open(new InetSocketAddress("localhost", PORT));
+                channel.socket().setTcpNoDelay(true);
+                ByteBuffer hello = MessageCodec.encodeFrame(new Message(opponentType));
+                while (hello.hasRemaining()) channel.write(hello);
+                channel.configureBlocking(false);
+                Client client = new Client(channel);
+                channel.register(selector, SelectionKey.OP_READ, client);
+                clients.add(client);
+            } catch (IOException e) {
+                System.out.println("Connect failed: " + e);
+                return false;
+            }
+            pump(0);
+        }
+        return true;
+    }
+
+    /**
+     * Read from every client for the measurement window, recording the gaps
+     * between game states from then on only.
+     */
+    private void measure() throws IOException {
+        // Give new clients time to be paired (or time out of the lobby) first.
+        pump(1000);
+        Arrays.fill(gapHistogram, 0);
+        gapCount = 0;
+        for (Client client : clients) client.statesInWindow = 0;
+        pump(measureMs);
+    }
+
+    private void pump(long millis) throws IOException {
+        long end = System.currentTimeMillis() + millis;
+        do {
+            long left = end - System.currentTimeMillis();
+            if (left > 0) selector.select(left);
+            else selector.selectNow();
+            for (SelectionKey key : selector.selectedKeys()) {
+                Client client = (Client) key.attachment();
+                if (key.isValid() && key.isReadable()) read(client, key);
+            }
+            selector.selectedKeys().clear();
+        } while (System.currentTimeMillis() < end);
+    }
+
+    private void read(Client client, SelectionKey key) throws IOException {
+        int n;
+        try {
+            n = client.channel.read(client.in);
+        } catch (IOException e) {
+            n = -1;
+        }
+        if (n < 0) {
+            client.closed = true;
+            key.cancel();
+            return;
+        }
+
+        client.in.flip();
+        Message m;
+        while ((m = MessageCodec.decodeFrame(client.in)) != null) {
+            if (m.getObject() instanceof Integer) client.seeded = true;
+            boolean isState = m.isSnapshot() || m.getObject() instanceof GameState;
+            if (!isState || !m.isMyGame()) continue;
+
+            long now = System.nanoTime();
+            if (client.lastState != 0) {
+                int gap = (int) Math.min(HISTOGRAM_MS, (now - client.lastState) / 1_000_000);
+                gapHistogram[gap]++;
+                gapCount++;
+            }
+            client.lastState = now;
+            client.statesInWindow++;
+            if (m.isSnapshot()) {
+                ByteBuffer ack = MessageCodec.encodeFrame(Message.ack(true, m.getSnapshotSeq()));
+                while (ack.hasRemaining()) client.channel.write(ack);
+            }
+        }
+        client.in.compact();
+    }
+
+    private int countHealthy() {
+        int healthy = 0;
+        for (Client client : clients) {
+            if (!client.closed && client.seeded && client.statesInWindow > 0) healthy++;
+        }
+        return healthy;
+    }
+
+    private int percentile(double p) {
+        if (gapCount == 0) return -1;
+        long rank = Math.max(1, (long) Math.ceil(p * gapCount));
+        long seen = 0;
+        for (int ms = 0; ms < gapHistogram.length; ms++) {
+            seen += gapHistogram[ms];
+            if (seen >= rank) return ms;
+        }
+        return HISTOGRAM_MS;
+    }
+
+    /**
+     * Read a field from the server's /proc status, if we can find it.
+     */
+    private static String serverStatus(Process server, String field, int divisor) {
+        try {
+            long pid = (Long) Process.class.getMethod("pid").invoke(server);
+            for (String line : Files.readAllLines(new File("/proc/" + pid + "/status").toPath())) {
+                if (line.startsWith(field)) {
+                    long value = Long.parseLong(line.substring(field.length()).trim().split("\\s+")[0]);
+                    return Long.toString(value / divisor);
+                }
+            }
+        } catch (Exception ignored) {
+            // Not Linux, or pre-9 runtime without Process.pid.
+        }
+        return "n/a";
+    }
+
+    private static class Client {
+        final SocketChannel channel;
+        final ByteBuffer in = ByteBuffer.allocate(64 * 1024);
+        boolean seeded = false;
+        boolean closed = false;
+        long lastState = 0;
+        int statesInWindow = 0;
+
+        Client(SocketChannel channel) {
+            this.channel = channel;
+        }
+    }
+}
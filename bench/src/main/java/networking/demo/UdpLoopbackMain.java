@@ -0,0 +1,100 @@
+package networking.demo;
+
+import networking.Message;
+import networking.RedundantSender;
+import networking.UdpEndpoint;
+import networking.UdpPeer;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Run the UDP transport end to end over loopback through a lossy, laggy shim:
+ * a "server" streams snapshots at 60Hz while a "client" sends a numbered input
+ * every frame. Checks that snapshots are only ever delivered newest-first,
+ * and that every input arrives despite the loss, each exactly once. A
+ * snapshot's age is from when it was sent to when it was delivered.
+ *
+ * Usage: UdpLoopbackMain [lossRate] [latencyMs] [jitterMs] [seconds]
+ */
+public class UdpLoopbackMain {
+
+    private static final int FRAME_MS = 16;
+
+    public static void main(String... args) throws Exception {
+        double loss = args.length > 0 ? Double.parseDouble(args[0]) : 0.2;
+        int latency = args.length > 1 ? Integer.parseInt(args[1]) : 60;
+        int jitter = args.length > 2 ? Integer.parseInt(args[2]) : 40;
+        int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 5;
+        int frames = seconds * 1000 / FRAME_MS;
+
+        UdpEndpoint server = new UdpEndpoint(0);
+        UdpEndpoint client = new UdpEndpoint(0);
+        server.simulate(loss, latency, jitter);
+        client.simulate(loss, latency, jitter);
+
+        // Server side: take inputs, dropping the repeats.
+        AtomicInteger lastInput = new AtomicInteger(0);
+        AtomicInteger inputsOutOfOrder = new AtomicInteger(0);
+        server.setReceiver((from, m) -> {
+            if (!m.isInput()) return;
+            int seq = m.getInputSeq();
+            if (seq <= lastInput.get()) return;
+            if (seq != lastInput.get() + 1) inputsOutOfOrder.incrementAndGet();
+            lastInput.set(seq);
+        });
+
+        // Client side: keep the newest snapshot, and check none go backwards.
+        AtomicInteger newestSnapshot = new AtomicInteger(-1);
+        AtomicInteger snapshotsDelivered = new AtomicInteger(0);
+        AtomicInteger snapshotsBackwards = new AtomicInteger(0);
+        AtomicLong totalAgeNanos = new AtomicLong(0);
+        AtomicLongArray sentAt = new AtomicLongArray(frames);
+        client.setReceiver((from, m) -> {
+            if (!m.isSnapshot()) return;
+            if (m.getSnapshotSeq() <= newestSnapshot.get()) snapshotsBackwards.incrementAndGet();
+            newestSnapshot.set(m.getSnapshotSeq());
+            snapshotsDelivered.incrementAndGet();
+            totalAgeNanos.addAndGet(System.nanoTime() - sentAt.get(m.getSnapshotSeq()));
+        });
+
+        new Thread(server, "UdpLoopback-server").start();
+        new Thread(client, "UdpLoopback-client").start();
+
+        UdpPeer toServer = client.peer(new InetSocketAddress("localhost", server.getLocalPort()));
+        UdpPeer toClient = server.peer(new InetSocketAddress("localhost", client.getLocalPort()));
+        RedundantSender inputs = new RedundantSender(client, toServer);
+        byte[] snapshot = new byte[600];
+
+        System.out.printf("Sending %d frames with %.0f%% loss, %dms latency, up to %dms jitter...\n",
+                frames, loss * 100, latency, jitter);
+        for (int frame = 0; frame < frames; frame++) {
+            sentAt.set(frame, System.nanoTime());
+            server.send(toClient, Message.snapshot(true, frame, Message.NO_BASELINE, snapshot, snapshot.length));
+            inputs.send(Message.input(frame + 1, "a"), true);
+            Thread.sleep(FRAME_MS);
+        }
+
+        // Keep both sides talking (with nothing new) until the last inputs are through.
+        for (int i = 0; i < 100 && lastInput.get() < frames; i++) {
+            server.send(toClient);
+            inputs.send(null, false);
+            Thread.sleep(FRAME_MS);
+        }
+
+        System.out.printf("Snapshots: %d sent, %d delivered, %d dropped as stale, mean age %dms, %d delivered out of order\n",
+                frames, snapshotsDelivered.get(), toServer.getStale(),
+                snapshotsDelivered.get() == 0 ? 0 : totalAgeNanos.get() / snapshotsDelivered.get() / 1_000_000, snapshotsBackwards.get());
+        System.out.printf("Inputs: %d sent, %d received, %d gaps, %d still unacked\n",
+                frames, lastInput.get(), inputsOutOfOrder.get(), inputs.getPendingCount());
+
+        boolean ok = snapshotsBackwards.get() == 0 && inputsOutOfOrder.get() == 0 && lastInput.get() == frames;
+        System.out.println(ok ? "OK" : "FAILED");
+
+        server.close();
+        client.close();
+        System.exit(ok ? 0 : 1);
+    }
+}
@@ -1,4 +1,4 @@
-package main;
+package client;
 
 import org.lwjgl.BufferUtils;
 import org.lwjgl.openal.*;
@@ -25,8 +25,6 @@ public class AudioEngine {
     public static final int GRAVUP = AUDIO_ENGINE.createTrack("gravup.wav");
     public static final int POINTS = AUDIO_ENGINE.createTrack("points.wav");
     public static final int DELETE_PLATFORM = AUDIO_ENGINE.createTrack("platform.wav");
-    // We don't want to play if we're in the client!
-    public static boolean isClient = false;
 
 
     /** Holds the device and context through which to play the audio. */
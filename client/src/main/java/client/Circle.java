@@ -1,4 +1,6 @@
-package main;
+package client;
+
+import main.Constants;
 
 class Circle {
 
@@ -0,0 +1,120 @@
+package client;
+
+import main.Constants;
+import main.GameState;
+
+/**
+ * A ClientPrediction remembers the moves the client has applied to its own
+ * game but that the server hasn't confirmed yet. Each move is numbered and
+ * stamped with the local tick it was applied on. When an authoritative state
+ * arrives it's moved onto the client's timeline and the unconfirmed moves are
+ * replayed on top of it, so the ball doesn't snap back to where the server
+ * last saw it.
+ *
+ * The replay relies on the simulation running in fixed SIM_TICK_MS steps on
+ * both ends; without FIXED_TIMESTEP there's nothing to line the ticks up with.
+ */
+class ClientPrediction {
+
+    private final int[] seqs = new int[Constants.INPUT_HISTORY];
+    private final int[] ticks = new int[Constants.INPUT_HISTORY];
+    private final String[] moves = new String[Constants.INPUT_HISTORY];
+    private int nextSeq = 1;
+    private int ackedSeq = 0;
+    // Our ticks minus the server's, as of the last reconcile; NOT_LINED_UP before one.
+    private static final int NOT_LINED_UP = Integer.MIN_VALUE;
+    private int tickOffset = NOT_LINED_UP;
+
+    /**
+     * Remember a move that's just been applied to the local game.
+     * @param tick The local game's tick when the move was applied.
+     * @param move The move.
+     * @return The sequence number to send the move to the server with.
+     */
+    int record(int tick, String move) {
+        int seq = nextSeq++;
+        int slot = seq % seqs.length;
+        seqs[slot] = seq;
+        ticks[slot] = tick;
+        moves[slot] = move;
+        return seq;
+    }
+
+    /**
+     * Bring an authoritative state from the server up to the client's present.
+     * The state is mutated in place.
+     * @param game The state the server sent, which includes every move up to game.lastInputSeq.
+     * @param localTick The tick the client's own game has reached.
+     * @return The predicted state.
+     */
+    GameState reconcile(GameState game, int localTick) {
+        int acked = game.lastInputSeq;
+        tickOffset = 0;
+        if (acked >= nextSeq) return game; // Numbered by a previous connection: nothing to replay.
+        ackedSeq = acked;
+
+        // Line the server's ticks up with ours using the last move it applied:
+        // it applied that move on lastInputTick, and we applied it on ticks[slot].
+        // Until the server has applied one of our moves there's nothing to line
+        // up with, so treat its state as current and keep counting our own ticks.
+        if (acked > 0) {
+            int slot = acked % seqs.length;
+            if (seqs[slot] != acked) return game; // Fell out of the history; trust the server.
+            tickOffset = ticks[slot] - game.lastInputTick;
+            game.tick = ticks[slot] + (game.tick - game.lastInputTick);
+            game.lastInputTick = ticks[slot];
+        } else {
+            tickOffset = localTick - game.tick;
+            game.tick = localTick;
+        }
+
+        int budget = Constants.MAX_REPLAY_TICKS;
+        for (int seq = acked + 1; seq < nextSeq; seq++) {
+            int slot = seq % seqs.length;
+            if (seqs[slot] != seq) continue; // Overwritten; the server will tell us how it went.
+            budget = advance(game, ticks[slot], budget);
+            game.handleInput(moves[slot]);
+        }
+        advance(game, localTick, budget);
+
+        // These moves already made their sounds and sent their messages the
+        // first time round, so keep the replay quiet.
+        game.events.clear();
+        return game;
+    }
+
+    /**
+     * Whether we've made moves the server hasn't confirmed applying yet.
+     */
+    boolean hasUnconfirmed() {
+        return ackedSeq < nextSeq - 1;
+    }
+
+    /**
+     * Work out which of the server's ticks one of ours corresponds to.
+     * @param localTick A tick of our own game.
+     * @return The server's tick, or -1 if we haven't had a state from the
+     *         server to line the two up with yet.
+     */
+    int toServerTick(int localTick) {
+        return tickOffset == NOT_LINED_UP ? -1 : localTick - tickOffset;
+    }
+
+    /**
+     * Forget every move, ready for a new game.
+     */
+    void reset() {
+        nextSeq = 1;
+        ackedSeq = 0;
+        tickOffset = NOT_LINED_UP;
+        for (int i = 0; i < seqs.length; i++) seqs[i] = 0;
+    }
+
+    private static int advance(GameState game, int toTick, int budget) {
+        while (game.tick < toTick && budget > 0 && !game.gameOver()) {
+            game.updatePhysics(Constants.SIM_TICK_MS);
+            budget--;
+        }
+        return budget;
+    }
+}
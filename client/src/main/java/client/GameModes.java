@@ -1,4 +1,4 @@
-package main;
+package client;
 
 /**
  * Created by Pintilii on 17/03/2017.
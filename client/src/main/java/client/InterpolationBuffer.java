@@ -0,0 +1,136 @@
+package client;
+
+import main.Ball;
+import main.Constants;
+import main.GameState;
+import main.GameStateCodec;
+import main.Item;
+import main.Platform;
+
+/**
+ * An InterpolationBuffer holds the last few snapshots of a game we only watch
+ * (the opponent's) and produces a state to draw that sits a fixed delay in the
+ * past, with the ball, platforms and items placed between the two snapshots
+ * either side of that moment. Nothing is simulated locally, so the opponent's
+ * half moves smoothly however irregularly the snapshots arrive.
+ *
+ * Snapshots are timed by their tick, which the server advances every
+ * SIM_TICK_MS. The offset between that and our own clock is taken from the
+ * quickest snapshot to arrive, drifting back up slowly if the server falls
+ * behind.
+ */
+class InterpolationBuffer {
+
+    private final GameState[] states = new GameState[Constants.INTERP_BUFFER];
+    private final long delayNanos;
+    private final long tickNanos = Constants.SIM_TICK_MS * 1_000_000L;
+    private int newest = -1;
+    private int count = 0;
+    private long clockOffset;
+
+    /** The state handed out by sample, and the snapshot it was copied from. */
+    private GameState view;
+    private GameState viewSource;
+
+    InterpolationBuffer() {
+        this.delayNanos = Constants.INTERP_DELAY_MS * 1_000_000L;
+    }
+
+    /**
+     * Add a freshly-received snapshot. Snapshots older than the newest one are ignored.
+     * @param game The snapshot. The buffer keeps it, so it mustn't be changed afterwards.
+     * @param now The local time it arrived, from System.nanoTime.
+     */
+    void add(GameState game, long now) {
+        if (count > 0 && game.tick <= states[newest].tick) return;
+
+        long offset = now - game.tick * tickNanos;
+        if (count == 0 || offset < clockOffset) clockOffset = offset;
+        else clockOffset += (offset - clockOffset) / 64;
+
+        newest = (newest + 1) % states.length;
+        states[newest] = game;
+        count = Math.min(count + 1, states.length);
+    }
+
+    /**
+     * Produce the state to draw right now.
+     * @param now The local time, from System.nanoTime.
+     * @return The interpolated state, or null if nothing has arrived yet.
+     *         It's only valid until the next call.
+     */
+    GameState sample(long now) {
+        if (count == 0) return null;
+
+        double renderTick = (now - clockOffset - delayNanos) / (double) tickNanos;
+
+        // Walk back from the newest snapshot to the first one at or before renderTick.
+        int later = newest;
+        for (int i = 1; i < count; i++) {
+            int earlier = (newest - i + states.length) % states.length;
+            GameState from = states[earlier];
+            if (from.tick <= renderTick) {
+                GameState to = states[later];
+                double alpha = (renderTick - from.tick) / (to.tick - from.tick);
+                return interpolate(from, to, Math.min(alpha, 1));
+            }
+            later = earlier;
+        }
+
+        // Everything we have is newer than renderTick (or there's only one snapshot).
+        return states[later];
+    }
+
+    /**
+     * Forget every snapshot, ready for a new game.
+     */
+    void reset() {
+        for (int i = 0; i < states.length; i++) states[i] = null;
+        newest = -1;
+        count = 0;
+        view = null;
+        viewSource = null;
+    }
+
+    private GameState interpolate(GameState from, GameState to, double alpha) {
+        if (viewSource != to) {
+            view = GameStateCodec.copy(to);
+            viewSource = to;
+        }
+
+        Ball a = from.getBall(), b = to.getBall();
+        view.getBall().setPosition(lerp(a.getX(), b.getX(), alpha), lerp(a.getY(), b.getY(), alpha));
+
+        // A platform or item that has been recycled to the top of the screen in
+        // between is drawn where it is in the later snapshot.
+        Platform[] fromPlatforms = from.getBasicPlatforms();
+        Platform[] toPlatforms = to.getBasicPlatforms();
+        Platform[] viewPlatforms = view.getBasicPlatforms();
+        for (int i = 0; i < viewPlatforms.length; i++) {
+            Platform p = fromPlatforms[i], q = toPlatforms[i];
+            if (p == null || q == null || viewPlatforms[i] == null) continue;
+            if (GameStateCodec.kindOf(p) != GameStateCodec.kindOf(q) || !isContinuous(p.y, q.y, to)) continue;
+            viewPlatforms[i].x = lerp(p.x, q.x, alpha);
+            viewPlatforms[i].y = lerp(p.y, q.y, alpha);
+        }
+
+        Item[] fromItems = from.getItems();
+        Item[] toItems = to.getItems();
+        Item[] viewItems = view.getItems();
+        for (int i = 0; i < viewItems.length; i++) {
+            Item p = fromItems[i], q = toItems[i];
+            if (p == null || q == null || viewItems[i] == null) continue;
+            if (p.getType() != q.getType() || !isContinuous(p.getY(), q.getY(), to)) continue;
+            viewItems[i].setPosition((int) lerp(p.getX(), q.getX(), alpha), (int) lerp(p.getY(), q.getY(), alpha));
+        }
+        return view;
+    }
+
+    private static boolean isContinuous(double fromY, double toY, GameState game) {
+        return Math.abs(toY - fromY) < game.getWindowHeight() / 2;
+    }
+
+    private static double lerp(double from, double to, double alpha) {
+        return from + (to - from) * alpha;
+    }
+}
@@ -1,4 +1,6 @@
-package main;
+package client;
+
+import main.Constants;
 
 public class LoadingScreen {
     static ShaderProgram tshader = new ShaderProgram("shaders/tshader.vs","shaders/shader.fs");
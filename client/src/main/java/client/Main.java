@@ -0,0 +1,346 @@
+package client;
+
+import main.Constants;
+import main.FixedTimestep;
+import main.GameEvents;
+import main.GameState;
+import main.InputFrame;
+import main.OpponentType;
+import main.SnapshotDecoder;
+import main.StateChecksum;
+import networking.Message;
+import networking.NetworkClient;
+
+import static java.lang.System.currentTimeMillis;
+
+public class Main extends NetworkClient {
+
+    private static final int windowHeight = Constants.WINDOW_HEIGHT;
+    private static final int windowWidth = Constants.WINDOW_WIDTH;
+    private static NetworkClient instance;
+
+    public static NetworkClient getInstance() {
+        return instance;
+    }
+
+    public Window getWindow() {
+        return myWindow;
+    }
+
+    private Window myWindow;
+    private GameState myGame, oppGame;
+    private SnapshotDecoder myGameSnapshots = new SnapshotDecoder();
+    private SnapshotDecoder oppGameSnapshots = new SnapshotDecoder();
+    private InterpolationBuffer oppGameBuffer = new InterpolationBuffer();
+    private boolean myGameAckPending, oppGameAckPending;
+    private boolean resyncPending;
+    private final ClientPrediction prediction = new ClientPrediction();
+    private final FixedTimestep timestep = new FixedTimestep(Constants.SIM_TICK_MS, Constants.MAX_CATCH_UP_STEPS);
+
+    private Main(String host, int port) {
+        super(host, port);
+        Main.instance = this;
+    }
+
+    /**
+     * The play() method implements the main myGame loop.
+     */
+    private void play() {
+
+        myGame = new GameState(windowWidth, windowHeight);
+        oppGame = new GameState(windowWidth, windowHeight);
+
+        myWindow = new Window(windowHeight, windowWidth);
+        myWindow.init(myGame, this);
+
+        Menu.drawAll();
+
+        long gcCounter = 0;
+        long timeStep = 0;
+
+        while (!myWindow.shouldClose()) {
+            long startTime = currentTimeMillis();
+
+            // Clear *all of the stuff* that gets
+            // created by openGL that we can't remove
+            // manually
+            if(gcCounter % 20 == 0) System.gc();
+            gcCounter++;
+
+            if (myWindow.getScreen() == Screen.GAME) {
+                handleMessages();
+                sendSnapshotAcks();
+                // In lockstep the games only move on as input frames arrive.
+                if (Constants.LOCKSTEP) {
+                    timestep.reset();
+                } else if (Constants.FIXED_TIMESTEP) {
+                    for (int steps = timestep.advance(); steps > 0; steps--) {
+                        myGame.updatePhysics(Constants.SIM_TICK_MS);
+                        if (!Constants.INTERPOLATE_OPPONENT) oppGame.updatePhysics(Constants.SIM_TICK_MS);
+                        reportChecksum();
+                    }
+                } else {
+                    myGame.updatePhysics(timeStep);
+                    if (!Constants.INTERPOLATE_OPPONENT) oppGame.updatePhysics(timeStep);
+                }
+            } else {
+                timestep.reset();
+            }
+
+            myWindow.clear();
+            myWindow.handleInput(myGame, this);
+            playEvents();
+            myWindow.repaint(myGame, opponentView());
+            long endTime = currentTimeMillis();
+            timeStep = endTime - startTime;
+
+            /*
+            if (timeStep >= Constants.MAX_TIME_PER_FRAME ) {
+                if (myWindow.getScreen() == Screen.GAME)
+                    System.err.println("[WARN] Main.play : Exceeded target time per frame: " + timeStep);
+                continue;
+            }*/
+
+/*            try {
+                Thread.sleep(Constants.MAX_TIME_PER_FRAME - timeStep);
+                endTime = currentTimeMillis();
+                timeStep = endTime - startTime
+            } catch (InterruptedException e) {
+                System.err.println("[WARN] Main.play : main loop interrupted.");
+                break;
+            }*/
+        }
+        myWindow.end();
+        System.out.println("[INFO] Main.play : Window closed.");
+        AudioEngine.getInstance().destroy();
+        System.exit(0);
+    }
+
+    void startGame(OpponentType opponentType) {
+        initialize();
+        myGameSnapshots = new SnapshotDecoder();
+        oppGameSnapshots = new SnapshotDecoder();
+        prediction.reset();
+        oppGameBuffer.reset();
+        resyncPending = false;
+        sendMessage(new Message(opponentType));
+
+        new Thread(() -> {
+            // Wait for the seed from the server, because we can't create the game states
+            // without it.
+            System.out.println("[INFO] Main.initializeGame : Waiting for seed...");
+            Message msg = waitForMessage();
+            int seed = (int) msg.getObject();
+            System.out.println("[INFO] Main.initializeGame : Received seed => " + seed);
+
+            // Start both from scratch, so nothing is left over from a previous game.
+            GameState game = new GameState(windowWidth, windowHeight);
+            game.setSeed(seed);
+            game.generatePlatforms();
+            game.generateItems();
+            GameState opponent = new GameState(windowWidth, windowHeight);
+            opponent.setSeed(seed);
+            opponent.generatePlatforms();
+            opponent.generateItems();
+            myGame = game;
+            oppGame = opponent;
+
+            myWindow.setScreen(Screen.GAME);
+        }).start();
+    }
+
+    /**
+     * Play the sounds for whatever happened in our game since last frame, and
+     * pass on anything the server needs to hear about. The opponent's game
+     * stays quiet.
+     */
+    private void playEvents() {
+        GameEvents events = myGame.getEvents();
+        for (int i = 0; i < events.size(); i++) {
+            switch (events.get(i)) {
+                case GameEvents.BOUNCE:
+                    AudioEngine.getInstance().playTrack(AudioEngine.BLOP);
+                    break;
+                case GameEvents.GRAVITY_UP:
+                    AudioEngine.getInstance().playTrack(AudioEngine.GRAVUP);
+                    break;
+                case GameEvents.GRAVITY_DOWN:
+                    AudioEngine.getInstance().playTrack(AudioEngine.GRAVDOWN);
+                    break;
+                case GameEvents.POINTS:
+                    AudioEngine.getInstance().playTrack(AudioEngine.POINTS);
+                    break;
+                case GameEvents.FLY_START:
+                    AudioEngine.getInstance().playTrack(AudioEngine.WHOOSH);
+                    break;
+                case GameEvents.FLY_STOP:
+                    AudioEngine.getInstance().stopTrack(AudioEngine.WHOOSH);
+                    break;
+                case GameEvents.PLATFORM_DELETE:
+                    AudioEngine.getInstance().playTrack(AudioEngine.DELETE_PLATFORM);
+                    sendMessage(new Message("PlatformDelete"));
+                    break;
+            }
+        }
+        events.clear();
+        oppGame.getEvents().clear();
+    }
+
+    /**
+     * The opponent's game as it should be drawn this frame: interpolated between
+     * snapshots if we're doing that and have any, otherwise the latest one.
+     */
+    private GameState opponentView() {
+        if (!Constants.INTERPOLATE_OPPONENT || Constants.LOCKSTEP) return oppGame;
+        GameState view = oppGameBuffer.sample(System.nanoTime());
+        return view != null ? view : oppGame;
+    }
+
+    /**
+     * Tell the server the newest snapshot we've applied in each stream, so it
+     * can send later snapshots as deltas against them. Sent once per frame
+     * rather than once per snapshot.
+     */
+    private void sendSnapshotAcks() {
+        if (myGameAckPending) sendMessage(Message.ack(true, myGameSnapshots.getLatestSeq()));
+        if (oppGameAckPending) sendMessage(Message.ack(false, oppGameSnapshots.getLatestSeq()));
+        myGameAckPending = false;
+        oppGameAckPending = false;
+    }
+
+    /**
+     * Every CHECKSUM_REPORT_TICKS of the server's ticks, tell the server the
+     * checksum of our own game, so that while the two agree it can send a
+     * checksum back instead of a snapshot. Not while the server has yet to
+     * confirm some of our moves, since our game is bound to differ then.
+     */
+    private void reportChecksum() {
+        if (!Constants.CHECKSUM_SNAPSHOTS || prediction.hasUnconfirmed() || myGame.gameOver()) return;
+        int serverTick = prediction.toServerTick(myGame.tick);
+        if (serverTick <= 0 || serverTick % Constants.CHECKSUM_REPORT_TICKS != 0) return;
+        sendMessage(Message.checksum(serverTick, StateChecksum.of(myGame)));
+    }
+
+    /**
+     * Apply one of our own moves straight away and send it to the server.
+     * With prediction on, the move is numbered and remembered so it can be
+     * replayed on top of server states that don't include it yet.
+     * @param move The move the player just made.
+     */
+    void sendMove(String move) {
+        if (Constants.LOCKSTEP) {
+            // Applied when it comes back in an input frame, like the opponent's.
+            sendMessage(new Message(move));
+            return;
+        }
+        myGame.handleInput(move);
+        if (Constants.CLIENT_PREDICTION && Constants.FIXED_TIMESTEP) {
+            sendMessage(Message.input(prediction.record(myGame.tick, move), move));
+        } else {
+            sendMessage(new Message(move));
+        }
+    }
+
+    /**
+     * Lockstep: bring both games on by one server tick. If the frame has
+     * checksums they're checked first, and if either game has drifted from
+     * the server's we ask for the server's copies. Then both players' moves
+     * are applied in the order the server applied them, and the same number
+     * of physics steps are run.
+     * @param frame The frame the server just sent.
+     */
+    private void applyInputFrame(InputFrame frame) {
+        if (frame.hasChecksums() && !resyncPending
+                && (StateChecksum.of(myGame) != frame.getMyChecksum() || StateChecksum.of(oppGame) != frame.getOppChecksum())) {
+            System.err.println("[WARN] Main.applyInputFrame : Out of step with the server at tick " + frame.getTick() + ", resyncing.");
+            sendMessage(new Message("Resync"));
+            resyncPending = true;
+        }
+
+        if (frame.isMineFirst()) {
+            applyMoves(frame.getMyMoves(), myGame, oppGame);
+            applyMoves(frame.getOppMoves(), oppGame, myGame);
+        } else {
+            applyMoves(frame.getOppMoves(), oppGame, myGame);
+            applyMoves(frame.getMyMoves(), myGame, oppGame);
+        }
+        for (int step = 0; step < frame.getSteps(); step++) {
+            myGame.updatePhysics(Constants.SIM_TICK_MS);
+            oppGame.updatePhysics(Constants.SIM_TICK_MS);
+        }
+
+        if (myGame.gameOver()) {
+            Window.getInstance().setWinner(false); // The other player won!
+            Window.getInstance().setScreen(Screen.GAME_OVER);
+        } else if (oppGame.gameOver()) {
+            Window.getInstance().setWinner(true); // We won!
+            Window.getInstance().setScreen(Screen.GAME_OVER);
+        }
+    }
+
+    /**
+     * Apply one player's moves from an input frame, as Match.applyMove does.
+     */
+    private static void applyMoves(String[] moves, GameState own, GameState opponent) {
+        for (String move : moves) {
+            if (move.equals("PlatformDelete")) opponent.makeClosestPlatformUnusable();
+            else own.handleInput(move);
+        }
+    }
+
+    public static void main(String[] args) {
+        Main main = new Main(Constants.HOST, Constants.PORT);
+        main.play();
+    }
+
+    /**
+     * This method is called whenever we receive a message from the Server.
+     * @param someonesGame The message we've just received.
+     */
+    @Override
+    public void handleMessage(Message someonesGame) {
+        if (someonesGame.isDatagramToken()) {
+            // Input frames have to arrive in order, so lockstep stays on TCP.
+            if (Constants.UDP_SNAPSHOTS && !Constants.LOCKSTEP) openDatagrams(someonesGame.getDatagramToken());
+            return;
+        }
+        if (someonesGame.isInputFrame()) {
+            applyInputFrame(someonesGame.getInputFrame());
+            return;
+        }
+        // The server agrees with our own game, so there's nothing to apply.
+        if (someonesGame.isChecksum()) return;
+
+        GameState game;
+        if (someonesGame.isSnapshot()) {
+            game = (someonesGame.isMyGame() ? myGameSnapshots : oppGameSnapshots).decode(someonesGame);
+            if (game == null) return; // Stale, or its baseline is gone: wait for the next one.
+            if (someonesGame.isMyGame()) myGameAckPending = true;
+            else oppGameAckPending = true;
+        } else if (someonesGame.getObject() instanceof GameState) {
+            game = (GameState) someonesGame.getObject();
+        } else {
+            return;
+        }
+
+        // In lockstep, a game state only comes when we've asked to resync.
+        if (Constants.LOCKSTEP) resyncPending = false;
+
+        if (someonesGame.isMyGame()) {
+            if (Constants.CLIENT_PREDICTION && Constants.FIXED_TIMESTEP && !Constants.LOCKSTEP) game = prediction.reconcile(game, myGame.tick);
+            myGame = game;
+            if(myGame.gameOver()) {
+                Window.getInstance().setWinner(false); // The other player won!
+                Window.getInstance().setScreen(Screen.GAME_OVER);
+            }
+        }
+        else {
+            oppGame = game;
+            if (Constants.INTERPOLATE_OPPONENT && !Constants.LOCKSTEP) oppGameBuffer.add(game, System.nanoTime());
+            if(oppGame.gameOver()) {
+                Window.getInstance().setWinner(true); // We won!
+                Window.getInstance().setScreen(Screen.GAME_OVER);
+            }
+        }
+    }
+}
@@ -1,4 +1,7 @@
-package main;
+package client;
+
+import main.Ball;
+import main.Pair;
 
 import java.util.ArrayList;
 import java.util.Random;
@@ -1,4 +1,4 @@
-package main;
+package client;
 
 /**
  * Class for creating all the shapes in the game
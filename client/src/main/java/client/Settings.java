@@ -1,4 +1,4 @@
-package main;
+package client;
 
 /**
  * Created by Jennifer on 08/03/2017.
@@ -1,9 +1,9 @@
-package main;
+package client;
 
 import java.io.BufferedReader;
-import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 
 import static org.lwjgl.opengl.GL20.*;
 
@@ -78,7 +78,9 @@ class Shader {
         StringBuilder string = new StringBuilder();
         BufferedReader br;
         try {
-            br = new BufferedReader(new FileReader(new File("src/shaders/" + filename)));
+            InputStream in = Shader.class.getClassLoader().getResourceAsStream("shaders/" + filename);
+            if (in == null) throw new IOException("Couldn't find shaders/" + filename + " on the classpath");
+            br = new BufferedReader(new InputStreamReader(in));
             String line;
             while ((line = br.readLine()) != null) {
                 string.append(line);
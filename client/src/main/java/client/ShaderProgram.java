@@ -1,10 +1,10 @@
-package main;
+package client;
 import static org.lwjgl.opengl.GL20.*;
 
 import java.io.BufferedReader;
-import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 
 /**
  * Allows for different (and cool) colours!
@@ -97,7 +97,9 @@ public class ShaderProgram {
 		StringBuilder string = new StringBuilder();
 		BufferedReader br;
 		try{
-			br = new BufferedReader(new FileReader(new File("src/" + filename)));
+			InputStream in = ShaderProgram.class.getClassLoader().getResourceAsStream(filename);
+			if (in == null) throw new IOException("Couldn't find " + filename + " on the classpath");
+			br = new BufferedReader(new InputStreamReader(in));
 			String line;
 			while((line = br.readLine()) != null)
 			{
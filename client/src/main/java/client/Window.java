@@ -1,7 +1,12 @@
-package main;
-
-import networking.Message;
-import networking.NetworkClient;
+package client;
+
+import main.Ball;
+import main.Constants;
+import main.GameState;
+import main.Item;
+import main.OpponentType;
+import main.Platform;
+import main.TrapPlatform;
 import org.lwjgl.BufferUtils;
 import org.lwjgl.glfw.GLFWCursorPosCallbackI;
 import org.lwjgl.glfw.GLFWMouseButtonCallbackI;
@@ -17,7 +22,7 @@ import static org.lwjgl.glfw.GLFW.*;
 import static org.lwjgl.opengl.GL11.*;
 
 /**
- * main.Main class for graphics
+ * client.Main class for graphics
  *
  * @author Ella
  */
@@ -129,31 +134,31 @@ class Window {
             	if(type == 2)
             	{
             		pshader1.bind();
-            		item.paint(this, opponent);
+            		paintItem(item, opponent);
             		pshader1.stop();
             	}
             	if(type == 1)
             	{
             		pshader2.bind();
-            		item.paint(this, opponent);
+            		paintItem(item, opponent);
             		pshader2.stop();
             	}
             	if(type == 3)
             	{
             		pshader3.bind();
-            		item.paint(this, opponent);
+            		paintItem(item, opponent);
             		pshader3.stop();
             	}
             	if(type == 4)
             	{
             		starshader.bind();
-            		item.paint(this,opponent);
+            		paintItem(item, opponent);
             		starshader.stop();
             	}
             	if (type == 5)
                 {
                     cshader.bind();
-                    item.paint(this, opponent);
+                    paintItem(item, opponent);
                     cshader.stop();
                 }
             }
@@ -293,7 +298,66 @@ class Window {
         // System.out.println("DRAW ALL PLATFORMS :O :O :O :O :O");
         Platform[] platforms = gameState.getBasicPlatforms();
         for (Platform platform : platforms) {
-            if (platform != null) platform.paint(this, opponent);
+            if (platform != null) paintPlatform(platform, opponent);
+        }
+    }
+
+    /**
+     * Draw a single platform. Trap platforms are drawn as outlines, the rest
+     * filled in red.
+     */
+    private void paintPlatform(Platform platform, boolean opponent) {
+        if(platform.noDraw) return;
+        double scaledX = glScaleX(platform.x, opponent, Screen.GAME);
+        double scaledY = glScaleY(platform.y);
+        double widthGl = glScaleDistance(platform.width);
+        double heightGl = glScaleDistance(platform.height);
+
+        double[] verticesb = {scaledX, scaledY, 0.3f, scaledX, (scaledY - heightGl), 0.3f, (scaledX + widthGl), (scaledY - heightGl), 0.3f, (scaledX + widthGl), scaledY, 0.3f};
+        if (platform instanceof TrapPlatform) {
+            Rectangle.drawrectangle(verticesb, Menu.getRectangleModel(), false);
+        } else {
+            glColor4f(1, 0, 0, 0);
+            Rectangle.drawrectangle(verticesb, Menu.getRectangleModel(), true);
+        }
+    }
+
+    /**
+     * Draw a single power-up, with a shape depending on its type.
+     */
+    private void paintItem(Item item, boolean opponent) {
+        if (item.isNoDraw()) return;
+
+        int type = item.getType();
+        double x = glScaleX(item.getX(), opponent, Screen.GAME);
+        double y = glScaleY(item.getY());
+        double[] vertices = null;
+        if (type == 2) {
+            vertices = new double[]{x, y, 0.8f, (x + 0.03f), (y + 0.03f), 0.8f, (x - 0.03f), (y + 0.03f), 0.8f};
+            Model triangles = Menu.getTriangleModel();
+            triangles.render(vertices, false);
+        }
+        if (type == 1) {
+            vertices = new double[]{x, y, 0.8f, (x + 0.03f), (y - 0.03f), 0.8f, (x - 0.03f), (y - 0.03f), 0.8f};
+            Model triangles = Menu.getTriangleModel();
+            triangles.render(vertices, false);
+        }
+        if (type == 3) {
+            vertices = Circle.createCircle(x, y, 0.2f, 0.02f, 5);
+            Model circles = Menu.getItemModel();
+            circles.render(vertices, false);
+        }
+        if (type == 4) {
+            Model rectangles = Menu.getRectangleModel();
+            double[] vertices1 = new double[]{(x + 0.009f), (y + 0.025f), 0.8f, (x + 0.009f), (y - 0.02f), 0.8f, (x + 0.014f), (y - 0.02f), 0.8f, (x + 0.014f), (y + 0.025f), 0.8f};
+            double[] vertices2 = new double[]{x, y, 0.8f, x, (y + 0.01f), 0.8f, (x + 0.03f), (y + 0.01f), 0.8f, (x + 0.03f), y, 0.8f};
+            rectangles.render(vertices1, false);
+            rectangles.render(vertices2, false);
+        }
+        if (type == 5) {
+            vertices = Circle.createCircle(x, y, 0.2f, 0.02f, 6);
+            Model circles = Menu.getPlatformPowerupModel();
+            circles.render(vertices, false);
         }
     }
 
@@ -301,20 +365,17 @@ class Window {
     /**
      * Use GLFW to handle the current state of the keyboard.
      */
-    private void handleKeyboardInput(GameState gameState, NetworkClient client) {
+    private void handleKeyboardInput(Main client) {
         //System.out.println("[INFO] Window.handleKeyboardInput : Handling input.");
         if (glfwGetKey(window, GLFW_KEY_A) == GLFW_TRUE) {
             // System.out.println("[INFO] Window.handleKeyboardInput : Key(A) pressed.");
-            gameState.getBall().moveLeft();
-            client.sendMessage(new Message("a"));
+            client.sendMove("a");
         } else if (glfwGetKey(window, GLFW_KEY_D) == GLFW_TRUE) {
             // System.out.println("[INFO] Window.handleKeyboardInput : Key(D) pressed.");
-            gameState.getBall().moveRight();
-            client.sendMessage(new Message("d"));
+            client.sendMove("d");
         } else if (glfwGetKey(window, GLFW_KEY_SPACE) == GLFW_TRUE) {
             // System.out.println("[INFO] Window.handleKeyboardInput : Key(D) pressed.");
-            gameState.getBall().doubleJump();
-            client.sendMessage(new Message("Space"));
+            client.sendMove("Space");
         } else if (glfwGetKey(window, GLFW_KEY_LEFT_SHIFT) == GLFW_TRUE) {
             // client.sendMessage(new Message("Shift"));
         }
@@ -324,10 +385,10 @@ class Window {
     /**
      * Utility/wrapper method to handle both types of input.
      */
-    void handleInput(GameState gameState, NetworkClient client) {
+    void handleInput(GameState gameState, Main client) {
         glfwPollEvents();
         // We don't handle mouse input here as that's event-driven.
-        handleKeyboardInput(gameState, client);
+        handleKeyboardInput(client);
     }
 
 
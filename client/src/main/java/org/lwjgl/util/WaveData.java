@@ -44,11 +44,8 @@ import javax.sound.sampled.AudioFormat;
 import javax.sound.sampled.AudioInputStream;
 import javax.sound.sampled.AudioSystem;
 
-import com.sun.org.apache.bcel.internal.util.ClassLoader;
 import org.lwjgl.openal.AL10;
 
-import com.sun.media.sound.WaveFileReader;
-
 /**
  *
  * Utitlity class for loading wavefiles.
@@ -95,12 +92,8 @@ public class WaveData {
      */
     public static WaveData create(URL path) {
         try {
-            // due to an issue with AudioSystem.getAudioInputStream
-            // and mixing unsigned and signed code
-            // we will use the reader directly
             //System.out.println("Path! :D : " + path);
-            WaveFileReader wfr = new WaveFileReader();
-            return create(wfr.getAudioInputStream(new BufferedInputStream(path.openStream())));
+            return create(AudioSystem.getAudioInputStream(new BufferedInputStream(path.openStream())));
         } catch (Exception e) {
             System.out.println("Unable to create from: " + path + ", " + e.getMessage());
             return null;
@@ -0,0 +1,83 @@
+package main;
+
+import ai.AI;
+import ai.PolicyTable;
+import ai.SearchAI;
+
+public class AIPlayer implements Player {
+    GameState game;
+    private final SearchAI search;
+    private final PolicyTable table;
+
+    /**
+     * An AI set up from Constants: searching if AI_SEARCH is on, otherwise
+     * using the policy table if there is one, and greedy if not.
+     */
+    public AIPlayer() {
+        this(Constants.AI_SEARCH
+                ? new SearchAI(Constants.AI_SEARCH_BUDGET_NS, SearchAI.Difficulty.valueOf(Constants.AI_DIFFICULTY))
+                : null,
+             Constants.AI_SEARCH ? null : PolicyTable.shared());
+    }
+
+    /**
+     * @param search The search to pick moves with, or null to use the greedy AI.getMove.
+     */
+    public AIPlayer(SearchAI search) {
+        this(search, null);
+    }
+
+    /**
+     * @param table The table to look moves up in, or null to use the greedy AI.getMove.
+     */
+    public AIPlayer(PolicyTable table) {
+        this(null, table);
+    }
+
+    private AIPlayer(SearchAI search, PolicyTable table) {
+        this.search = search;
+        this.table = table;
+    }
+
+    @Override
+    public int drainMoves(String[] moves, int[] seqs) {
+        if(game == null || moves.length == 0) return 0;
+        AI.Move move;
+        if (search != null) move = search.getMove(game);
+        else if (table != null) move = table.getMove(game);
+        else move = AI.getMove(game);
+        seqs[0] = 0;
+        switch(move) {
+            case LEFT:
+                moves[0] = "a";
+                return 1;
+            case RIGHT:
+                moves[0] = "d";
+                return 1;
+            case JUMP:
+                moves[0] = "Space";
+                return 1;
+            default:
+                return 0;
+        }
+    }
+
+    @Override
+    public void updateGameState(GameState gameState, boolean isCurrentPlayer) throws InterruptedException {
+        if (isCurrentPlayer) game = gameState;
+    }
+
+    @Override
+    public void updateSeed(int seed) throws InterruptedException {}
+
+    @Override
+    public void updateChecksum(GameState gameState) {}
+
+    @Override
+    public void gameChanged() {}
+
+    @Override
+    public void updateInputFrame(InputFrame frame, GameState gameState) {
+        game = gameState;
+    }
+}
@@ -0,0 +1,122 @@
+package main;
+
+import networking.Message;
+import networking.UdpEndpoint;
+import networking.UdpPeer;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.net.SocketException;
+import java.security.SecureRandom;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * DatagramSessions runs the server's UDP socket and ties each address that
+ * talks to it to a HumanPlayer. Every player is given a random token over TCP
+ * (see HumanPlayer.updateSeed); when that token arrives in a datagram, the
+ * sender's address is bound to the player, who from then on sends its
+ * snapshots over UDP and takes acks and inputs from there. Whenever an
+ * address is unbound while its player is still playing, the player sends
+ * its client a new token (see HumanPlayer.datagramsLost), so the client
+ * never keeps sending to an address we've stopped listening to.
+ *
+ * Only the server creates one, and only when UDP_SNAPSHOTS is on.
+ */
+class DatagramSessions implements UdpEndpoint.Receiver {
+
+    private static DatagramSessions instance;
+
+    /**
+     * Open the UDP socket and start receiving on it.
+     * @param port The port to listen on (the same number as the TCP one).
+     */
+    static synchronized DatagramSessions start(int port) throws SocketException {
+        if (instance == null) {
+            instance = new DatagramSessions(new UdpEndpoint(port));
+            Thread thread = new Thread(instance.endpoint, "UdpEndpoint-server");
+            thread.setDaemon(true);
+            thread.start();
+        }
+        return instance;
+    }
+
+    /** The running sessions, or null if UDP isn't in use. */
+    static synchronized DatagramSessions getInstance() {
+        return instance;
+    }
+
+    private final UdpEndpoint endpoint;
+    private final SecureRandom random = new SecureRandom();
+    private final Map<Long, Pending> pending = new ConcurrentHashMap<>();
+    private final Map<SocketAddress, HumanPlayer> bound = new ConcurrentHashMap<>();
+
+    private DatagramSessions(UdpEndpoint endpoint) {
+        this.endpoint = endpoint;
+        endpoint.setReceiver(this);
+    }
+
+    /**
+     * Hand out a token that will bind whichever address sends it to this player.
+     */
+    long register(HumanPlayer player) {
+        long token = random.nextLong();
+        pending.put(token, new Pending(player));
+        return token;
+    }
+
+    @Override
+    public void receive(UdpPeer from, Message m) {
+        if (m.isDatagramToken()) {
+            Pending waiting = pending.remove(m.getDatagramToken());
+            if (waiting == null) return; // Used already, or made up.
+            bound.put(from.getAddress(), waiting.player);
+            waiting.player.bindDatagrams(from);
+            System.out.println("[INFO] DatagramSessions.receive : Bound " + from.getAddress() + " to a player.");
+            sweep();
+            return;
+        }
+
+        HumanPlayer player = bound.get(from.getAddress());
+        if (player != null) player.receive(m);
+    }
+
+    /**
+     * Send a message to a bound peer in a packet of its own.
+     */
+    void send(UdpPeer peer, Message m) throws IOException {
+        endpoint.send(peer, m);
+    }
+
+    /**
+     * Stop routing an address to its player, e.g. when it's gone quiet.
+     */
+    void unbind(UdpPeer peer) {
+        bound.remove(peer.getAddress());
+        endpoint.forget(peer.getAddress());
+    }
+
+    /**
+     * Forget tokens nobody ever sent back, and addresses whose player has
+     * gone or that nobody has heard from in a while. Done whenever something
+     * new is bound, which is rare enough for a full pass to be cheap.
+     */
+    private void sweep() {
+        long now = System.currentTimeMillis();
+        pending.values().removeIf(waiting -> now - waiting.issued > Constants.UDP_TIMEOUT_MS * 10);
+        for (Map.Entry<SocketAddress, HumanPlayer> entry : bound.entrySet()) {
+            UdpPeer peer = endpoint.peer(entry.getKey());
+            HumanPlayer player = entry.getValue();
+            if (!player.isConnected() || peer.millisSinceReceive() > Constants.UDP_TIMEOUT_MS) player.datagramsLost(peer);
+        }
+    }
+
+    private static class Pending {
+        final HumanPlayer player;
+        final long issued = System.currentTimeMillis();
+
+        Pending(HumanPlayer player) {
+            this.player = player;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package main;
+
+import networking.Message;
+import networking.UdpEndpoint;
+import networking.UdpPeer;
+
+import java.io.IOException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+public class HumanPlayer implements Player {
+    private final PlayerConnection connection;
+    private final Queue<Message> inputQueue = new ConcurrentLinkedQueue<>();
+    private final SnapshotEncoder myGameSnapshots = new SnapshotEncoder(true);
+    private final SnapshotEncoder oppGameSnapshots = new SnapshotEncoder(false);
+    private final SyncTracker sync = new SyncTracker();
+    private int lastReceivedInputSeq = 0;
+    private volatile UdpPeer datagramPeer;
+    private volatile boolean connected = true;
+
+    /**
+     * @param connection The connection to send game states and seeds down.
+     */
+    HumanPlayer(PlayerConnection connection) {
+        this.connection = connection;
+    }
+
+    /**
+     * Handle a message from the client. Called from whichever thread reads the
+     * client's connection.
+     * @param m A move, an acknowledgement of a snapshot, or a checksum of the
+     *          client's own game.
+     */
+    void receive(Message m) {
+        if (m.isChecksum()) {
+            sync.report(m.getChecksumTick(), m.getChecksum());
+        } else if (m.isAck()) {
+            (m.isMyGame() ? myGameSnapshots : oppGameSnapshots).acknowledge(m.getAckSeq());
+        } else if (m.isInput()) {
+            // Inputs sent over UDP are repeated until acked, so drop the copies.
+            synchronized (this) {
+                if (m.getInputSeq() <= lastReceivedInputSeq) return;
+                lastReceivedInputSeq = m.getInputSeq();
+            }
+            inputQueue.add(m);
+        } else if (m.getText() != null) {
+            inputQueue.add(m);
+        }
+    }
+
+    /**
+     * Start sending snapshots over UDP to the peer that sent back our token.
+     */
+    void bindDatagrams(UdpPeer peer) {
+        datagramPeer = peer;
+    }
+
+    /**
+     * Stop using a UDP peer that has gone quiet, and go back to TCP. The client
+     * can't tell that by itself, and would carry on sending its moves to a
+     * session we no longer route, so it's sent a fresh token over TCP: that
+     * makes it start again on a new socket, sending over TCP as well until
+     * datagrams get through, and over TCP alone if they never do.
+     * @param peer The peer that went quiet; nothing is sent if it's not the
+     *             one we're using any more.
+     */
+    void datagramsLost(UdpPeer peer) {
+        DatagramSessions sessions = DatagramSessions.getInstance();
+        sessions.unbind(peer);
+        synchronized (this) {
+            if (datagramPeer != peer) return;
+            datagramPeer = null;
+        }
+        if (!connected) return;
+        try {
+            connection.send(Message.datagramToken(sessions.register(this)));
+        } catch (IOException e) {
+            System.err.println("[WARN] HumanPlayer.datagramsLost : Couldn't send a new token: " + e);
+        }
+    }
+
+    @Override
+    public int drainMoves(String[] moves, int[] seqs) {
+        int count = 0;
+        Message input;
+        while (count < moves.length && (input = inputQueue.poll()) != null) {
+            moves[count] = input.getText();
+            seqs[count] = input.isInput() ? input.getInputSeq() : 0;
+            count++;
+        }
+        return count;
+    }
+
+    @Override
+    public void updateGameState(GameState gameState, boolean isCurrentPlayer) throws InterruptedException {
+        Message msg;
+        if (isCurrentPlayer && Constants.CHECKSUM_SNAPSHOTS && sync.inSync()) {
+            // The client's game is already the same as ours.
+            msg = Message.checksum(sync.getLatestTick(), sync.getLatestChecksum());
+        } else if (Constants.DELTA_SNAPSHOTS) {
+            msg = (isCurrentPlayer ? myGameSnapshots : oppGameSnapshots).encode(gameState);
+        } else {
+            msg = new Message(gameState, isCurrentPlayer);
+        }
+        try {
+            UdpPeer peer = datagramPeer;
+            if (peer != null && peer.millisSinceReceive() > Constants.UDP_TIMEOUT_MS) {
+                // Datagrams have stopped getting through; go back to TCP, which
+                // also tells us if the client has gone altogether.
+                System.err.println("[WARN] HumanPlayer.updateGameState : Nothing over UDP from " + peer.getAddress() + ", back to TCP.");
+                datagramsLost(peer);
+                peer = null;
+            }
+            // A state too big for one datagram goes over TCP this once.
+            if (peer != null && UdpEndpoint.fits(msg)) DatagramSessions.getInstance().send(peer, msg);
+            else connection.send(msg);
+        } catch (IOException e) {
+            System.err.println("[ERROR] HumanPlayer.updateGameState : IOException " + e);
+            System.err.println("[ERROR] HumanPlayer.updateGameState : InterruptedException thrown...");
+            throw new InterruptedException();
+        }
+    }
+
+    @Override
+    public void updateChecksum(GameState gameState) {
+        sync.record(gameState);
+    }
+
+    @Override
+    public void gameChanged() {
+        sync.changed();
+    }
+
+    /**
+     * Called once the client's connection has closed.
+     */
+    void disconnected() {
+        connected = false;
+        long reports = sync.getAgreed() + sync.getDisagreed();
+        if (reports > 0) {
+            System.out.println("[INFO] HumanPlayer.disconnected : " + sync.getDisagreed() + " of the client's " + reports
+                    + " checksums didn't match the server's game.");
+        }
+    }
+
+    @Override
+    public boolean isConnected() {
+        return connected;
+    }
+
+    @Override
+    public void updateInputFrame(InputFrame frame, GameState gameState) throws InterruptedException {
+        // Always over TCP: every frame has to arrive, and in order.
+        try {
+            connection.send(Message.inputFrame(frame));
+        } catch (IOException e) {
+            System.err.println("[ERROR] HumanPlayer.updateInputFrame : IOException " + e);
+            System.err.println("[ERROR] HumanPlayer.updateInputFrame : InterruptedException thrown...");
+            throw new InterruptedException();
+        }
+    }
+
+    @Override
+    public void updateSeed(int seed) throws InterruptedException {
+        try {
+            connection.send(new Message(seed));
+            DatagramSessions sessions = DatagramSessions.getInstance();
+            if (sessions != null) connection.send(Message.datagramToken(sessions.register(this)));
+        } catch (IOException e) {
+            System.err.println("[ERROR] HumanPlayer.updateSeed : IOException " + e);
+            System.err.println("[ERROR] HumanPlayer.updateSeed : InterruptedException thrown...");
+            throw new InterruptedException();
+        }
+    }
+}
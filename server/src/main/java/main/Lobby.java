@@ -0,0 +1,147 @@
+package main;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The Lobby puts connected players into matches. There's nothing to tell
+ * players apart by yet (no regions or ratings), so everyone wanting a human
+ * opponent is paired through one slot holding at most one waiting player.
+ * Joining is a single compare-and-set: either take the waiting player and
+ * start a match, or become the waiting player. No locks are taken.
+ *
+ * A player left waiting for LOBBY_WAIT_MS is given an AIPlayer instead.
+ * Waiting players whose connection has closed are dropped when someone
+ * finds them in the slot, and if the other player has gone by the time
+ * a match starts, the one left is put back (see rejoin).
+ */
+class Lobby {
+
+    private final AtomicReference<Waiting> slot = new AtomicReference<>();
+    private final ScheduledThreadPoolExecutor timeouts;
+    private final boolean threadPerMatch;
+    private final AtomicLong humanMatches = new AtomicLong();
+    private final AtomicLong aiMatches = new AtomicLong();
+    private final AtomicLong timedOut = new AtomicLong();
+    private final AtomicLong requeued = new AtomicLong();
+
+    /**
+     * @param threadPerMatch Whether matches get a thread each rather than being
+     *                       stepped by the MatchScheduler.
+     */
+    Lobby(boolean threadPerMatch) {
+        this.threadPerMatch = threadPerMatch;
+        this.timeouts = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread thread = new Thread(r, "Lobby-timeouts");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.timeouts.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Put a freshly-connected player into the kind of match they asked for.
+     * @param us The player that just told us what they want to play against.
+     * @param opponentType The kind of opponent they asked for.
+     */
+    void join(Player us, OpponentType opponentType) {
+        switch (opponentType) {
+            case AI:
+                System.out.println("[INFO] Lobby.join : Setting up an AI match.");
+                startAIMatch(us);
+                break;
+            case HUMAN:
+                joinHuman(us);
+                break;
+            default:
+                System.err.println("[WARN] Lobby.join : Client requested unknown opponent type.");
+        }
+    }
+
+    /**
+     * If there's someone waiting, start a match between them and us. If not,
+     * wait ourselves until someone else arrives or we time out.
+     * @param us The player looking for a human opponent.
+     */
+    void joinHuman(Player us) {
+        Waiting waiting = null;
+        while (true) {
+            Waiting opp = slot.get();
+            if (opp != null) {
+                if (!slot.compareAndSet(opp, null)) continue;
+                opp.timeout.cancel(false);
+                if (!opp.player.isConnected()) {
+                    // They left while waiting; look again, and wait in their place if need be.
+                    System.out.println("[INFO] Lobby.joinHuman : Dropped a waiting player whose connection closed.");
+                    continue;
+                }
+                if (waiting != null) waiting.timeout.cancel(false);
+                humanMatches.incrementAndGet();
+                startMatch(new Match(us, opp.player, this));
+                return;
+            }
+
+            // Schedule the timeout before we're visible, so whoever takes us
+            // from the slot can always cancel it.
+            if (waiting == null) waiting = new Waiting(us);
+            if (slot.compareAndSet(null, waiting)) return;
+        }
+    }
+
+    /**
+     * Look for a human opponent again for a player whose match never started
+     * because the other player had gone.
+     */
+    void rejoin(Player us) {
+        requeued.incrementAndGet();
+        joinHuman(us);
+    }
+
+    /**
+     * How many matches have been started so far: between humans, against the
+     * AI by request, and against the AI after waiting too long.
+     */
+    long getHumanMatches() { return humanMatches.get(); }
+
+    long getAIMatches() { return aiMatches.get(); }
+
+    long getTimedOut() { return timedOut.get(); }
+
+    /** How many players were put back after their opponent left before the match started. */
+    long getRequeued() { return requeued.get(); }
+
+    private void timeout(Waiting waiting) {
+        // If we can't take them out of the slot, someone has just paired with them.
+        if (!slot.compareAndSet(waiting, null)) return;
+        if (!waiting.player.isConnected()) return;
+        System.out.println("[INFO] Lobby.timeout : No opponent after " + Constants.LOBBY_WAIT_MS + "ms, playing the AI instead.");
+        timedOut.incrementAndGet();
+        startAIMatch(waiting.player);
+    }
+
+    private void startAIMatch(Player us) {
+        aiMatches.incrementAndGet();
+        startMatch(new Match(us, new AIPlayer()));
+    }
+
+    private void startMatch(Match match) {
+        if (threadPerMatch) ServerThreads.start(match, "Match");
+        else MatchScheduler.getInstance().schedule(match);
+    }
+
+    /**
+     * A player waiting in the slot, along with their pending timeout.
+     */
+    private class Waiting {
+        final Player player;
+        final ScheduledFuture<?> timeout;
+
+        Waiting(Player player) {
+            this.player = player;
+            this.timeout = timeouts.schedule(() -> timeout(this), Constants.LOBBY_WAIT_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+}
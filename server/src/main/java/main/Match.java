@@ -0,0 +1,338 @@
+package main;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * A Match runs the authoritative game states for two players. It can either
+ * be given a thread of its own (run), or be stepped one tick at a time by a
+ * MatchScheduler; step is safe to call from any thread, as long as only one
+ * thread steps a given match at once.
+ *
+ * Normally the clients are sent game states; with LOCKSTEP they're sent each
+ * tick's inputs instead (see InputFrame) and simulate both games themselves.
+ */
+public class Match implements Runnable {
+
+    private Player playerOne;
+    private Player playerTwo;
+
+    private GameState playerOneGameState;
+    private GameState playerTwoGameState;
+    private boolean p2MoveDone = false;
+    private int loopNum = 0;
+    private long timeStep = 1;
+    private long lastStepTime = 0;
+    private final FixedTimestep timestep = new FixedTimestep(Constants.SIM_TICK_MS, Constants.MAX_CATCH_UP_STEPS);
+    private final String[] playerOneMoveBatch = new String[Constants.MAX_MOVES_PER_TICK];
+    private final int[] playerOneSeqBatch = new int[Constants.MAX_MOVES_PER_TICK];
+    private final String[] playerTwoMoveBatch = new String[Constants.MAX_MOVES_PER_TICK];
+    private final int[] playerTwoSeqBatch = new int[Constants.MAX_MOVES_PER_TICK];
+
+    private final int seed;
+    /** Whether time is simulated: each step is SRVR_MS_PER_UPDT after the last, however long it really took. */
+    private final boolean simulatedTime;
+    private long simulatedNanos = 0;
+    /** Where to send a player back to if the match can't start because the other has gone, or null. */
+    private final Lobby lobby;
+
+    public Match(Player playerOne, Player playerTwo) {
+        this(playerOne, playerTwo, new Random().nextInt(), false, null);
+    }
+
+    /**
+     * A match between two players the Lobby paired. If one of them has gone
+     * by the time it starts, the other is put back in the Lobby.
+     */
+    Match(Player playerOne, Player playerTwo, Lobby lobby) {
+        this(playerOne, playerTwo, new Random().nextInt(), false, lobby);
+    }
+
+    /**
+     * @param seed The seed both games are generated from.
+     * @param simulatedTime Whether to run on simulated time rather than the
+     *                      clock, so the match can be stepped as fast as the
+     *                      CPU allows (see SelfPlay). It also keeps quiet.
+     */
+    Match(Player playerOne, Player playerTwo, int seed, boolean simulatedTime) {
+        this(playerOne, playerTwo, seed, simulatedTime, null);
+    }
+
+    private Match(Player playerOne, Player playerTwo, int seed, boolean simulatedTime, Lobby lobby) {
+        this.playerOne = playerOne;
+        this.playerTwo = playerTwo;
+        this.seed = seed;
+        this.simulatedTime = simulatedTime;
+        this.lobby = lobby;
+    }
+
+    @Override
+    public void run() {
+        if (!start()) return;
+
+        while (step()) {
+            try {
+                Thread.sleep(Constants.SRVR_MS_PER_UPDT);
+            } catch (InterruptedException ignored) {}
+        }
+        finish();
+    }
+
+    /**
+     * Create both game states and send the seed to the clients.
+     * @return Whether the match is ready to be stepped.
+     */
+    boolean start() {
+        // A client only takes the first seed it's sent, so check both players
+        // are still there before either gets one; that way whoever is left
+        // can be paired again.
+        if (!playerOne.isConnected() || !playerTwo.isConnected()) {
+            requeue(playerOne);
+            requeue(playerTwo);
+            return false;
+        }
+
+        log("[INFO] Match.start : Creating game state...");
+
+        // Create new authoritative game states with the same random seed
+        playerOneGameState = new GameState(Constants.WINDOW_WIDTH, Constants.WINDOW_HEIGHT);
+        playerOneGameState.setSeed(seed);
+        playerTwoGameState = new GameState(Constants.WINDOW_WIDTH, Constants.WINDOW_HEIGHT);
+        playerTwoGameState.setSeed(seed);
+        // Nobody listens for sounds on the server.
+        playerOneGameState.events.setEnabled(false);
+        playerTwoGameState.events.setEnabled(false);
+
+        log("[INFO] Match.start : Generating Platforms...");
+        playerOneGameState.generatePlatforms();
+        playerTwoGameState.generatePlatforms();
+
+        log("[INFO] Match.start : Generating Items...");
+        playerOneGameState.generateItems();
+        playerTwoGameState.generateItems();
+
+        log("[INFO] Match.start : Sending seed to client(s)...");
+        try {
+            playerOne.updateSeed(seed);
+        } catch (InterruptedException e) {
+            System.err.println("[WARN] Match.start : InterruptedException... Player Disconnect?...");
+            requeue(playerTwo);
+            return false;
+        }
+        try {
+            playerTwo.updateSeed(seed);
+        } catch (InterruptedException e) {
+            // Too late to pair player one again: they already have this match's seed.
+            System.err.println("[WARN] Match.start : InterruptedException... Player Disconnect?...");
+            return false;
+        }
+
+        log("[INFO] Match.start : Starting match...");
+        return true;
+    }
+
+    /**
+     * Run a single tick of the match: relay any input, send the scheduled
+     * updates and advance the physics by however long it's been since the
+     * last tick. With FIXED_TIMESTEP that time is simulated as a whole number
+     * of SIM_TICK_MS steps, the same for both players.
+     * @return Whether the match should keep being stepped.
+     */
+    boolean step() {
+        if (simulatedTime) simulatedNanos += Constants.SRVR_MS_PER_UPDT * 1000000L;
+        long startTime = simulatedTime ? simulatedNanos / 1000000 : System.currentTimeMillis();
+        if (lastStepTime != 0) timeStep = startTime - lastStepTime;
+        lastStepTime = startTime;
+
+        // Take everything both players have sent since the last tick and apply
+        // it in one go, so each client gets at most one state per tick however
+        // many moves it made.
+        int playerOneMoves, playerTwoMoves;
+        try {
+            playerOneMoves = playerOne.drainMoves(playerOneMoveBatch, playerOneSeqBatch);
+            playerTwoMoves = playerTwo.drainMoves(playerTwoMoveBatch, playerTwoSeqBatch);
+        } catch (InterruptedException e) {
+            //System.err.println("[WARN] Match.step : Player disconnect while retrieving moves!");
+            return false;
+        }
+        if (Constants.LOCKSTEP) return stepLockstep(playerOneMoves, playerTwoMoves);
+
+        for (int i = 0; i < playerOneMoves; i++) {
+            if (applyMove(playerOneMoveBatch[i], playerOneSeqBatch[i], playerOneGameState, playerTwoGameState)) playerTwo.gameChanged();
+            else playerOne.gameChanged();
+        }
+        for (int i = 0; i < playerTwoMoves; i++) {
+            if (applyMove(playerTwoMoveBatch[i], playerTwoSeqBatch[i], playerTwoGameState, playerOneGameState)) playerOne.gameChanged();
+            else playerTwo.gameChanged();
+        }
+        p2MoveDone = playerTwoMoves > 0;
+
+        // A player's own game goes out on ticks where they moved and on the
+        // snapshot schedule; clients that interpolate the opponent's game can
+        // make do with it less often.
+        boolean ownSnapshotDue = loopNum % Constants.SRVR_TICKS_PER_SNAPSHOT == 0;
+        boolean oppSnapshotDue = loopNum % Constants.SRVR_TICKS_PER_OPP_SNAPSHOT == 0;
+        try {
+            if (ownSnapshotDue || playerOneMoves > 0) playerOne.updateGameState(playerOneGameState, true);
+            if (ownSnapshotDue || playerTwoMoves > 0) playerTwo.updateGameState(playerTwoGameState, true);
+            if (oppSnapshotDue || (!Constants.INTERPOLATE_OPPONENT && playerTwoMoves > 0)) playerOne.updateGameState(playerTwoGameState, false);
+            if (oppSnapshotDue || (!Constants.INTERPOLATE_OPPONENT && playerOneMoves > 0)) playerTwo.updateGameState(playerOneGameState, false);
+        } catch (InterruptedException e) {
+            //System.err.println("[WARN] Match.step : Player disconnect while updating game state.");
+            return false;
+        }
+
+        loopNum++;
+        if (playerOneGameState.gameOver() || playerTwoGameState.gameOver()) return true;
+
+        if (Constants.FIXED_TIMESTEP) {
+            for (int steps = advanceTimestep(); steps > 0; steps--) {
+                playerOneGameState.updatePhysics(Constants.SIM_TICK_MS);
+                playerTwoGameState.updatePhysics(Constants.SIM_TICK_MS);
+                if (Constants.CHECKSUM_SNAPSHOTS) {
+                    playerOne.updateChecksum(playerOneGameState);
+                    playerTwo.updateChecksum(playerTwoGameState);
+                }
+            }
+            return true;
+        }
+
+        // Physics tick
+        playerOneGameState.updatePhysics(timeStep);
+        playerTwoGameState.updatePhysics(timeStep);
+        if(!p2MoveDone) playerTwoGameState.updatePhysics(timeStep);
+
+        return true;
+    }
+
+    /**
+     * The rest of step in lockstep: rather than sending game states, tell both
+     * clients which moves were made this tick and how many physics steps to
+     * run, so they can simulate both games themselves. Every
+     * LOCKSTEP_CHECKSUM_TICKS ticks the frame also carries checksums of both
+     * games from before the moves, and a client that finds it disagrees asks
+     * to resync, which gets it both games in full at the end of the tick.
+     * @return Whether the match should keep being stepped.
+     */
+    private boolean stepLockstep(int playerOneMoves, int playerTwoMoves) {
+        boolean checksumDue = loopNum % Constants.LOCKSTEP_CHECKSUM_TICKS == 0;
+        long playerOneChecksum = checksumDue ? StateChecksum.of(playerOneGameState) : 0;
+        long playerTwoChecksum = checksumDue ? StateChecksum.of(playerTwoGameState) : 0;
+
+        int playerOneGameMoves = removeResyncs(playerOneMoveBatch, playerOneSeqBatch, playerOneMoves);
+        int playerTwoGameMoves = removeResyncs(playerTwoMoveBatch, playerTwoSeqBatch, playerTwoMoves);
+        for (int i = 0; i < playerOneGameMoves; i++) {
+            applyMove(playerOneMoveBatch[i], playerOneSeqBatch[i], playerOneGameState, playerTwoGameState);
+        }
+        for (int i = 0; i < playerTwoGameMoves; i++) {
+            applyMove(playerTwoMoveBatch[i], playerTwoSeqBatch[i], playerTwoGameState, playerOneGameState);
+        }
+
+        boolean over = playerOneGameState.gameOver() || playerTwoGameState.gameOver();
+        int steps = over ? 0 : advanceTimestep();
+        try {
+            if (steps > 0 || playerOneGameMoves > 0 || playerTwoGameMoves > 0 || checksumDue) {
+                String[] playerOneFrameMoves = Arrays.copyOf(playerOneMoveBatch, playerOneGameMoves);
+                String[] playerTwoFrameMoves = Arrays.copyOf(playerTwoMoveBatch, playerTwoGameMoves);
+                playerOne.updateInputFrame(new InputFrame(loopNum, steps, true, playerOneFrameMoves, playerTwoFrameMoves,
+                        checksumDue, playerOneChecksum, playerTwoChecksum), playerOneGameState);
+                playerTwo.updateInputFrame(new InputFrame(loopNum, steps, false, playerTwoFrameMoves, playerOneFrameMoves,
+                        checksumDue, playerTwoChecksum, playerOneChecksum), playerTwoGameState);
+            }
+            loopNum++;
+
+            for (; steps > 0; steps--) {
+                playerOneGameState.updatePhysics(Constants.SIM_TICK_MS);
+                playerTwoGameState.updatePhysics(Constants.SIM_TICK_MS);
+            }
+
+            if (playerOneGameMoves < playerOneMoves) {
+                playerOne.updateGameState(playerOneGameState, true);
+                playerOne.updateGameState(playerTwoGameState, false);
+            }
+            if (playerTwoGameMoves < playerTwoMoves) {
+                playerTwo.updateGameState(playerTwoGameState, true);
+                playerTwo.updateGameState(playerOneGameState, false);
+            }
+        } catch (InterruptedException e) {
+            //System.err.println("[WARN] Match.stepLockstep : Player disconnect while sending input frames.");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Take any requests to resync out of a batch of moves, keeping the rest in
+     * order.
+     * @return How many moves are left.
+     */
+    private static int removeResyncs(String[] moves, int[] seqs, int count) {
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            if (moves[i].equals("Resync")) continue;
+            moves[kept] = moves[i];
+            seqs[kept] = seqs[i];
+            kept++;
+        }
+        return kept;
+    }
+
+    /**
+     * Apply a single move from a player.
+     * @param move The move.
+     * @param seq Its sequence number, or 0 if it isn't numbered.
+     * @param own The game of the player who made the move.
+     * @param opponent The other player's game, which some power-ups act on.
+     * @return Whether it was the opponent's game that the move changed.
+     */
+    private boolean applyMove(String move, int seq, GameState own, GameState opponent) {
+        // TODO: Handle powerups
+        if (move.equals("PlatformDelete")) {
+            opponent.makeClosestPlatformUnusable();
+            return true;
+        }
+        own.handleInput(move);
+        own.recordInput(seq);
+        return false;
+    }
+
+    /**
+     * How many SIM_TICK_MS steps to run this tick.
+     */
+    private int advanceTimestep() {
+        return simulatedTime ? timestep.advance(simulatedNanos) : timestep.advance();
+    }
+
+    private void log(String message) {
+        if (!simulatedTime) System.out.println(message);
+    }
+
+    GameState getPlayerOneGameState() {
+        return playerOneGameState;
+    }
+
+    GameState getPlayerTwoGameState() {
+        return playerTwoGameState;
+    }
+
+    /**
+     * Put a player back in the Lobby, if they came from it and are still connected.
+     */
+    private void requeue(Player player) {
+        if (lobby == null || !player.isConnected()) return;
+        log("[INFO] Match.requeue : Opponent left before the match started, looking for another.");
+        lobby.rejoin(player);
+    }
+
+    /**
+     * Called once the match has stopped being stepped.
+     */
+    void finish() {
+        log("[INFO] Match.finish : Match concluded.");
+        if (timestep.getDroppedSteps() > 0) {
+            System.out.println("[WARN] Match.finish : Dropped " + timestep.getDroppedSteps() + " physics steps while overloaded.");
+        }
+
+        // Todo: send game over to fix client disconnects.
+    }
+}
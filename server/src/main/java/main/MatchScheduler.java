@@ -0,0 +1,150 @@
+package main;
+
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A MatchScheduler steps every running Match on a fixed pool of worker
+ * threads, instead of giving each match a thread that sleeps between ticks.
+ * Matches wait in a deadline queue; a worker takes whichever match is due
+ * next, steps it once and puts it back with its next deadline. A match is
+ * only ever in the queue once, so no two workers step it at the same time.
+ * A match that throws is finished and dropped; the worker carries on with
+ * the rest, so one bad match can't take a worker down with it.
+ */
+class MatchScheduler {
+
+    private static MatchScheduler instance;
+
+    /** Returns the shared scheduler, starting its workers the first time. */
+    static synchronized MatchScheduler getInstance() {
+        if (instance == null) instance = new MatchScheduler(Constants.MATCH_WORKER_THREADS, Constants.SRVR_MS_PER_UPDT);
+        return instance;
+    }
+
+    private final DelayQueue<ScheduledMatch> queue = new DelayQueue<>();
+    private final long periodNanos;
+
+    /**
+     * @param workers How many threads step matches.
+     * @param periodMillis How often each match should be stepped.
+     */
+    MatchScheduler(int workers, long periodMillis) {
+        this.periodNanos = TimeUnit.MILLISECONDS.toNanos(periodMillis);
+        for (int i = 0; i < workers; i++) {
+            Thread worker = new Thread(this::work, "MatchScheduler-" + i);
+            worker.setDaemon(true);
+            worker.start();
+        }
+    }
+
+    /**
+     * Start a match and have it stepped from now on, until step returns false.
+     * @param match The match to run.
+     */
+    void schedule(Match match) {
+        queue.add(new ScheduledMatch(match, System.nanoTime()));
+    }
+
+    /**
+     * How many matches are currently registered with the scheduler.
+     */
+    int getMatchCount() {
+        return queue.size();
+    }
+
+    private void work() {
+        while (true) {
+            ScheduledMatch scheduled;
+            try {
+                scheduled = queue.take();
+            } catch (InterruptedException e) {
+                System.err.println("[WARN] MatchScheduler.work : Worker interrupted, stopping.");
+                return;
+            }
+
+            boolean running;
+            try {
+                running = scheduled.runOnce(periodNanos);
+            } catch (RuntimeException e) {
+                System.err.println("[ERROR] MatchScheduler.work : Match threw " + e + ", dropping it.");
+                e.printStackTrace();
+                scheduled.abandon();
+                running = false;
+            }
+            if (running) queue.add(scheduled);
+        }
+    }
+
+    /**
+     * A match along with its next deadline and how late its ticks have been.
+     */
+    private static class ScheduledMatch implements Delayed {
+        private final Match match;
+        private boolean started = false;
+        private long deadline;
+        private long ticks = 0;
+        private long totalLateness = 0;
+        private long maxLateness = 0;
+
+        ScheduledMatch(Match match, long deadline) {
+            this.match = match;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Step the match once (starting it first if need be) and work out its next deadline.
+         * @return Whether the match should be put back in the queue.
+         */
+        boolean runOnce(long periodNanos) {
+            long lateness = System.nanoTime() - deadline;
+            ticks++;
+            totalLateness += lateness;
+            maxLateness = Math.max(maxLateness, lateness);
+
+            boolean running;
+            if (!started) {
+                started = true;
+                running = match.start();
+            } else {
+                running = match.step();
+            }
+
+            if (!running) {
+                match.finish();
+                System.out.printf("[INFO] MatchScheduler.runOnce : Match ran %d ticks, mean lateness %.3fms, max lateness %.3fms.\n",
+                        ticks, totalLateness / (double) ticks / 1e6, maxLateness / 1e6);
+                return false;
+            }
+
+            // If we've fallen more than a whole tick behind, don't try to catch up
+            // with a burst of back-to-back ticks: just carry on from now.
+            deadline += periodNanos;
+            long now = System.nanoTime();
+            if (now - deadline > periodNanos) deadline = now;
+            return true;
+        }
+
+        /**
+         * Finish a match that threw rather than stepping it again.
+         */
+        void abandon() {
+            try {
+                match.finish();
+            } catch (RuntimeException e) {
+                System.err.println("[ERROR] MatchScheduler.abandon : Match threw again while finishing: " + e);
+            }
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(deadline, ((ScheduledMatch) other).deadline);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package main;
+
+import networking.Message;
+import networking.MessageCodec;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A NioClientHandler is the non-blocking counterpart of ServerSideClientHandler.
+ * It holds the per-connection state (read buffer, outbound frames, the player)
+ * for a channel owned by a ServerEventLoop; onReadable and onWritable are only
+ * ever called from that loop's thread, while send may be called from a Match.
+ * Outgoing frames wait in an OutboundMailbox, so send never blocks.
+ */
+class NioClientHandler implements PlayerConnection {
+
+    private static final int INITIAL_READ_BUFFER = 1024;
+
+    private final SocketChannel channel;
+    private final ServerEventLoop eventLoop;
+    private final Lobby lobby;
+    private final OutboundMailbox outbound = new OutboundMailbox();
+    private final AtomicBoolean writeRequested = new AtomicBoolean(false);
+    private ByteBuffer readBuffer = ByteBuffer.allocate(INITIAL_READ_BUFFER);
+    private SelectionKey key;
+    private ByteBuffer writing;
+    private HumanPlayer player;
+    private volatile boolean closed = false;
+
+    NioClientHandler(SocketChannel channel, ServerEventLoop eventLoop, Lobby lobby) {
+        this.channel = channel;
+        this.eventLoop = eventLoop;
+        this.lobby = lobby;
+    }
+
+    void setKey(SelectionKey key) {
+        this.key = key;
+    }
+
+    @Override
+    public void send(Message m) throws IOException {
+        if (closed) throw new IOException("Connection closed");
+        if (!outbound.offer(m)) {
+            System.err.println("[WARN] NioClientHandler.send : Client isn't keeping up, disconnecting.");
+            eventLoop.execute(this::close);
+            throw new IOException("Client too slow");
+        }
+        if (writeRequested.compareAndSet(false, true)) eventLoop.requestWrite(this);
+    }
+
+    /**
+     * Read whatever has arrived and handle every complete frame in it.
+     */
+    void onReadable() {
+        try {
+            if (channel.read(readBuffer) < 0) {
+                close();
+                return;
+            }
+
+            readBuffer.flip();
+            Message m;
+            while ((m = MessageCodec.decodeFrame(readBuffer)) != null) handleMessage(m);
+            readBuffer.compact();
+
+            // A frame bigger than our buffer: grow it so the rest can arrive.
+            if (!readBuffer.hasRemaining()) {
+                ByteBuffer bigger = ByteBuffer.allocate(readBuffer.capacity() * 2);
+                readBuffer.flip();
+                bigger.put(readBuffer);
+                readBuffer = bigger;
+            }
+        } catch (IOException e) {
+            System.err.println("[WARN] NioClientHandler.onReadable : " + e);
+            close();
+        }
+    }
+
+    /**
+     * Write as many waiting frames as the socket will take. If we empty the
+     * mailbox, stop asking the selector about writability.
+     */
+    void onWritable() {
+        try {
+            while (writing != null || (writing = outbound.poll()) != null) {
+                channel.write(writing);
+                if (writing.hasRemaining()) return; // Socket buffer is full; wait for the next OP_WRITE.
+                writing = null;
+            }
+
+            key.interestOps(SelectionKey.OP_READ);
+            writeRequested.set(false);
+
+            // Something may have been queued between draining and clearing the flag.
+            if (!outbound.isEmpty() && writeRequested.compareAndSet(false, true)) enableWrites();
+        } catch (IOException e) {
+            System.err.println("[WARN] NioClientHandler.onWritable : " + e);
+            close();
+        }
+    }
+
+    /**
+     * Start listening for writability. Runs on the event loop's thread.
+     */
+    void enableWrites() {
+        if (closed || !key.isValid()) return;
+        key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+    }
+
+    /**
+     * The first message from a client says what it wants to play against;
+     * everything after that is a move.
+     */
+    private void handleMessage(Message m) {
+        if (player != null) {
+            player.receive(m);
+            return;
+        }
+
+        Object request = m.getObject();
+        if (!(request instanceof OpponentType)) {
+            System.err.println("[WARN] NioClientHandler.handleMessage : Expected an opponent type, got " + request);
+            return;
+        }
+        System.out.println("[INFO] NioClientHandler.handleMessage : Client requested opponent type: " + request);
+        player = new HumanPlayer(this);
+        lobby.join(player, (OpponentType) request);
+    }
+
+    private void close() {
+        if (outbound.getCoalesced() > 0) {
+            System.out.println("[INFO] NioClientHandler.close : " + outbound.getCoalesced() + " game states were replaced before they could be sent.");
+        }
+        if (player != null && !closed) player.disconnected();
+        closed = true;
+        if (key != null) key.cancel();
+        try {
+            channel.close();
+        } catch (IOException ignored) {}
+        outbound.clear();
+    }
+}
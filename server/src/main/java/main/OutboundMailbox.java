@@ -0,0 +1,121 @@
+package main;
+
+import networking.Message;
+import networking.MessageCodec;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An OutboundMailbox holds the frames waiting to go out to one client, so the
+ * Match producing them never waits on the network. Messages are encoded when
+ * they're offered, and the network layer takes frames out whenever the socket
+ * can take them.
+ *
+ * Frames go out in the order they were offered, from a single queue. Game
+ * states are coalesced: a newer state of the same game (the client's own or
+ * the opponent's) replaces an unsent older one in its place in the queue,
+ * since only the latest matters. That's only done while nothing else has been
+ * queued behind the older state, so a frame that has to stay in order (an
+ * input frame, a seed, a checksum) is never overtaken by a state offered after
+ * it, nor sent ahead of one offered before it. Delta snapshots are safe to
+ * drop like this because they're encoded against what the client has acked
+ * rather than the previous snapshot. Up to MAILBOX_CAPACITY frames other than
+ * states can be waiting.
+ *
+ * A client is too slow, and offer starts failing, if the queue overflows or
+ * the mailbox hasn't been emptied for SLOW_CONSUMER_MS. The queue and the
+ * time it was last empty are only touched under the mailbox's lock, so a
+ * poll that empties it can't be missed by an offer racing with it.
+ */
+class OutboundMailbox {
+
+    /** A place in the queue, holding a frame. */
+    private static final class Slot {
+        ByteBuffer frame;
+        final boolean isState;
+
+        Slot(ByteBuffer frame, boolean isState) {
+            this.frame = frame;
+            this.isState = isState;
+        }
+    }
+
+    private final Deque<Slot> queue = new ArrayDeque<>();
+    private int queued = 0;
+    /** The unsent state of each game that a newer one may still replace, if any. */
+    private Slot myGame, oppGame;
+    /** When the queue last went from empty to not, or 0 while it's empty. */
+    private long pendingSince = 0;
+    private final AtomicLong coalesced = new AtomicLong();
+
+    /**
+     * Encode a message and leave it for the network layer to send.
+     * @param m The message; it's fully encoded by the time this returns.
+     * @return False if the client has fallen too far behind, in which case the
+     *         message isn't kept and the client should be dropped.
+     */
+    boolean offer(Message m) {
+        ByteBuffer frame = MessageCodec.encodeFrame(m);
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            if (pendingSince != 0 && now - pendingSince > Constants.SLOW_CONSUMER_MS) return false;
+            if (m.isSnapshot() || m.getObject() instanceof GameState) {
+                Slot pending = m.isMyGame() ? myGame : oppGame;
+                if (pending != null) {
+                    pending.frame = frame;
+                    coalesced.incrementAndGet();
+                } else {
+                    Slot slot = new Slot(frame, true);
+                    queue.add(slot);
+                    if (m.isMyGame()) myGame = slot;
+                    else oppGame = slot;
+                }
+            } else {
+                if (queued >= Constants.MAILBOX_CAPACITY) return false;
+                queued++;
+                queue.add(new Slot(frame, false));
+                // Nothing offered from now on may go out ahead of this.
+                myGame = null;
+                oppGame = null;
+            }
+            if (pendingSince == 0) pendingSince = now;
+        }
+        return true;
+    }
+
+    /**
+     * Take the next frame to send.
+     * @return The frame, or null if the mailbox is empty.
+     */
+    synchronized ByteBuffer poll() {
+        Slot slot = queue.poll();
+        if (queue.isEmpty()) pendingSince = 0;
+        if (slot == null) return null;
+        if (slot == myGame) myGame = null;
+        else if (slot == oppGame) oppGame = null;
+        if (!slot.isState) queued--;
+        return slot.frame;
+    }
+
+    synchronized boolean isEmpty() {
+        return queue.isEmpty();
+    }
+
+    /**
+     * How many game states have been replaced before they could be sent.
+     */
+    long getCoalesced() {
+        return coalesced.get();
+    }
+
+    synchronized void clear() {
+        queue.clear();
+        queued = 0;
+        myGame = null;
+        oppGame = null;
+        pendingSince = 0;
+    }
+}
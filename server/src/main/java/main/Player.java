@@ -0,0 +1,46 @@
+package main;
+
+public interface Player {
+    /**
+     * Take every move that has arrived since the last call, oldest first,
+     * without allocating.
+     * @param moves Where to put the moves; at most moves.length are taken, and
+     *              any more are left for the next call.
+     * @param seqs Where to put each move's sequence number, for players whose
+     *             client predicts its own moves (0 if a move isn't numbered).
+     * @return How many moves were taken.
+     */
+    int drainMoves(String[] moves, int[] seqs) throws InterruptedException;
+
+    void updateGameState(GameState gameState, boolean isCurrentPlayer) throws InterruptedException;
+
+    void updateSeed(int seed) throws InterruptedException;
+
+    /**
+     * Called after every physics step with this player's own game, when
+     * CHECKSUM_SNAPSHOTS is on.
+     */
+    void updateChecksum(GameState gameState);
+
+    /**
+     * Called when something other than physics changes this player's own
+     * game: one of their moves, or the opponent's power-up.
+     */
+    void gameChanged();
+
+    /**
+     * In lockstep, pass on one tick's input frame in place of game states.
+     * @param frame The frame, from this player's point of view.
+     * @param gameState This player's game on the server, for players that play
+     *                  from it directly.
+     */
+    void updateInputFrame(InputFrame frame, GameState gameState) throws InterruptedException;
+
+    /**
+     * Whether the player is still there to be sent anything. A HumanPlayer
+     * stops being once its client's connection has closed.
+     */
+    default boolean isConnected() {
+        return true;
+    }
+}
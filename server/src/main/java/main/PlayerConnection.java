@@ -0,0 +1,21 @@
+package main;
+
+import networking.Message;
+
+import java.io.IOException;
+
+/**
+ * A PlayerConnection is the server's view of a single connected client: somewhere
+ * a HumanPlayer can push messages to without caring whether the socket behind it
+ * is a blocking stream or a channel owned by a ServerEventLoop.
+ */
+interface PlayerConnection {
+
+    /**
+     * Encode and queue (or write) a message to the client. The message must be
+     * fully encoded before this returns, as the caller may mutate it straight after.
+     * @param m The message to send.
+     * @throws IOException If the client has disconnected.
+     */
+    void send(Message m) throws IOException;
+}
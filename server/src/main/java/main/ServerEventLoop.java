@@ -0,0 +1,131 @@
+package main;
+
+import java.io.IOException;
+import java.nio.channels.*;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * A ServerEventLoop owns a Selector and multiplexes many client channels on a
+ * single thread. Other threads never touch its selector directly: they hand it
+ * tasks through execute(), which are run between selects.
+ */
+class ServerEventLoop implements Runnable {
+
+    private final ServerMainNew server;
+    private final Selector selector;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private volatile boolean running = true;
+
+    ServerEventLoop(ServerMainNew server) throws IOException {
+        this.server = server;
+        this.selector = Selector.open();
+    }
+
+    /**
+     * Run a task on this loop's thread, waking the selector if it's blocked.
+     * @param task The task to run.
+     */
+    void execute(Runnable task) {
+        tasks.add(task);
+        selector.wakeup();
+    }
+
+    /**
+     * Start accepting connections from a listening channel on this loop.
+     * @param serverChannel A bound, non-blocking server socket channel.
+     */
+    void listen(ServerSocketChannel serverChannel) {
+        execute(() -> {
+            try {
+                serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+            } catch (ClosedChannelException e) {
+                System.err.println("[ERROR] ServerEventLoop.listen : Server channel closed before registering.");
+            }
+        });
+    }
+
+    /**
+     * Take ownership of a freshly-accepted client channel.
+     * @param channel The client's channel.
+     */
+    void register(SocketChannel channel) {
+        execute(() -> {
+            try {
+                channel.configureBlocking(false);
+                channel.socket().setTcpNoDelay(true);
+                NioClientHandler handler = new NioClientHandler(channel, this, server.getLobby());
+                handler.setKey(channel.register(selector, SelectionKey.OP_READ, handler));
+            } catch (IOException e) {
+                System.err.println("[WARN] ServerEventLoop.register : Couldn't register client channel: " + e);
+                try {
+                    channel.close();
+                } catch (IOException ignored) {}
+            }
+        });
+    }
+
+    /**
+     * Ask for a handler's channel to be told when it's writable. Handlers call
+     * this from whichever thread queued the write.
+     * @param handler The handler with pending writes.
+     */
+    void requestWrite(NioClientHandler handler) {
+        execute(handler::enableWrites);
+    }
+
+    void stop() {
+        running = false;
+        selector.wakeup();
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            try {
+                selector.select();
+            } catch (IOException e) {
+                System.err.println("[ERROR] ServerEventLoop.run : select failed: " + e);
+                break;
+            }
+
+            Runnable task;
+            while ((task = tasks.poll()) != null) task.run();
+
+            Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+            while (keys.hasNext()) {
+                SelectionKey key = keys.next();
+                keys.remove();
+                if (!key.isValid()) continue;
+
+                if (key.isAcceptable()) {
+                    accept((ServerSocketChannel) key.channel());
+                    continue;
+                }
+
+                NioClientHandler handler = (NioClientHandler) key.attachment();
+                if (key.isReadable()) handler.onReadable();
+                if (key.isValid() && key.isWritable()) handler.onWritable();
+            }
+        }
+        System.out.println("[INFO] ServerEventLoop.run : Event loop stopped.");
+    }
+
+    /**
+     * Accept every pending connection and spread them across the server's loops.
+     */
+    private void accept(ServerSocketChannel serverChannel) {
+        while (true) {
+            SocketChannel channel;
+            try {
+                channel = serverChannel.accept();
+            } catch (IOException e) {
+                System.err.println("[ERROR] ServerEventLoop.accept : Couldn't accept connection from client: " + e);
+                return;
+            }
+            if (channel == null) return;
+            server.nextEventLoop().register(channel);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package main;
+
+import networking.MessageCodec;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+
+
+public class ServerInputBroker implements Runnable {
+    private final HumanPlayer player;
+    private final DataInputStream inputStream;
+    private final Runnable onClose;
+
+    /**
+     * @param onClose Called once the client's connection can't be read any more.
+     */
+    ServerInputBroker(HumanPlayer player, DataInputStream inputStream, Runnable onClose) {
+        this.player = player;
+        this.inputStream = inputStream;
+        this.onClose = onClose;
+    }
+
+    @Override
+    public void run() {
+        while (true) {
+            try {
+                this.player.receive(MessageCodec.readFrame(this.inputStream));
+            } catch (IOException e) {
+                System.err.println("[WARN] ServerInputBroker.run : " + e);
+                onClose.run();
+                break;
+            }
+        }
+    }
+}
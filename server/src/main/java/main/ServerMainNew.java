@@ -0,0 +1,125 @@
+package main;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.channels.ServerSocketChannel;
+import java.util.Arrays;
+
+public class ServerMainNew {
+
+    private final int port;
+    private final boolean blocking;
+    private ServerSocket serverSocket;
+    private ServerSocketChannel serverChannel;
+    private ServerEventLoop[] eventLoops;
+    private int nextEventLoop = 0;
+    private final Lobby lobby;
+
+    /**
+     * @param port The port to listen on.
+     * @param blocking Whether to use a thread per connection (and per match) instead of event loops.
+     */
+    ServerMainNew(int port, boolean blocking) {
+        this.port = port;
+        this.blocking = blocking;
+        this.serverSocket = null;
+        this.lobby = new Lobby(blocking);
+    }
+
+    void initialize() {
+        if (Constants.UDP_SNAPSHOTS) {
+            try {
+                DatagramSessions.start(port);
+                System.out.println("[INFO] ServerMainNew.initialize: Sending snapshots over UDP on port " + port + ".");
+            } catch (SocketException e) {
+                System.err.println("[WARN] ServerMainNew.initialize: Couldn't open the UDP socket, using TCP only: " + e);
+            }
+        }
+
+        try {
+            if (blocking) {
+                this.serverSocket = new ServerSocket(port);
+                return;
+            }
+
+            this.serverChannel = ServerSocketChannel.open();
+            this.serverChannel.bind(new InetSocketAddress(port), Constants.SERVER_ACCEPT_BACKLOG);
+            this.serverChannel.configureBlocking(false);
+
+            this.eventLoops = new ServerEventLoop[Constants.SERVER_IO_THREADS];
+            for (int i = 0; i < eventLoops.length; i++) eventLoops[i] = new ServerEventLoop(this);
+        } catch (IOException e) {
+            System.err.println("[ERROR] ServerMainNew.initialize: Couldn't initialize server socket.");
+            System.exit(1);
+        }
+    }
+
+    void run() {
+        if (blocking) {
+            runBlocking();
+            return;
+        }
+
+        System.out.println("[INFO] ServerMainNew.run: Listening with " + eventLoops.length + " event loop(s).");
+        eventLoops[0].listen(serverChannel);
+        for (int i = 1; i < eventLoops.length; i++) {
+            new Thread(eventLoops[i], "ServerEventLoop-" + i).start();
+        }
+        eventLoops[0].run();
+    }
+
+    /**
+     * The original accept loop: one thread per connected client.
+     */
+    private void runBlocking() {
+        System.out.println("[INFO] ServerMainNew.run: Using " + (ServerThreads.isVirtual() ? "virtual" : "platform") + " threads.");
+        while (true) {
+            try {
+                System.out.println("[INFO] ServerMainNew.run: Waiting for client connection.");
+                Socket clientSocket = serverSocket.accept();
+                System.out.println("[INFO] ServerMainNew.run: clientSocket is " + clientSocket);
+                ServerThreads.start(new ServerSideClientHandler(clientSocket, lobby), "ServerSideClientHandler");
+            } catch (IOException e) {
+                System.err.println("[ERROR] ServerMainNew.run: Couldn't accept connection from client.");
+                System.exit(1);
+            }
+        }
+    }
+
+    /**
+     * Pick the event loop that should own the next accepted connection.
+     * Only called from the accepting loop's thread.
+     */
+    ServerEventLoop nextEventLoop() {
+        ServerEventLoop loop = eventLoops[nextEventLoop];
+        nextEventLoop = (nextEventLoop + 1) % eventLoops.length;
+        return loop;
+    }
+
+    Lobby getLobby() {
+        return lobby;
+    }
+
+    /**
+     * Usage: ServerMainNew [--blocking [--virtual]]
+     *
+     * --blocking uses a thread per connection and per match; adding --virtual
+     * makes those virtual threads, where the runtime supports them.
+     */
+    public static void main(String... args) {
+        boolean blocking = Arrays.asList(args).contains("--blocking");
+        if (Arrays.asList(args).contains("--virtual")) {
+            if (!blocking) {
+                System.err.println("[WARN] ServerMainNew.main: --virtual only applies with --blocking; ignoring it.");
+            } else if (!ServerThreads.useVirtual(true)) {
+                System.err.println("[WARN] ServerMainNew.main: This runtime has no virtual threads; using platform threads.");
+            }
+        }
+        ServerMainNew main = new ServerMainNew(Constants.PORT, blocking);
+        main.initialize();
+        main.run();
+    }
+}
@@ -0,0 +1,122 @@
+package main;
+
+import networking.Message;
+import networking.MessageCodec;
+
+import java.io.*;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.concurrent.locks.LockSupport;
+
+
+/**
+ * A ServerSideClientHandler serves one client with blocking streams and a
+ * thread of its own. It's only used when the server is started with
+ * --blocking; by default connections are multiplexed by ServerEventLoops.
+ * Sends go through an OutboundMailbox drained by a writer thread, so a client
+ * that stops reading can't block the Match sending to it.
+ */
+public class ServerSideClientHandler implements Runnable, PlayerConnection {
+    /** How long the writer sleeps for at most, in case a wakeup is missed. */
+    private static final long WRITER_PARK_NANOS = 50_000_000L;
+
+    protected DataInputStream inputStream = null;
+    protected DataOutputStream outputStream = null;
+    private Socket clientSocket = null;
+    private Lobby lobby = null;
+    private final OutboundMailbox outbound = new OutboundMailbox();
+    private volatile Thread writer;
+    private volatile boolean closed = false;
+    private volatile HumanPlayer player;
+
+    public ServerSideClientHandler(Socket clientSocket, Lobby lobby) {
+        if (clientSocket == null) {
+            System.err.println("[ERROR] ServerSideClientHandler constructor: Client socket is null.");
+            System.exit(1);
+        }
+        this.clientSocket = clientSocket;
+        try {
+            clientSocket.setTcpNoDelay(true);
+            this.inputStream = new DataInputStream(new BufferedInputStream(clientSocket.getInputStream()));
+            this.outputStream = new DataOutputStream(new BufferedOutputStream(clientSocket.getOutputStream()));
+        } catch (IOException e) {
+            System.err.println("[ERROR] ServerSideClientHandler constructor: Couldn't get input or output stream from socket.");
+        }
+        this.lobby = lobby;
+    }
+
+    @Override
+    public void run() {
+        try {
+
+            OpponentType opponentType = (OpponentType) waitForMessage().getObject();
+            System.out.println("[INFO] ServerSideClientHandler.run: Client requested opponent type: " + opponentType);
+
+            writer = ServerThreads.start(this::writeLoop, "ServerSideClientHandler-writer");
+
+            HumanPlayer us = new HumanPlayer(this);
+            player = us;
+            ServerThreads.start(new ServerInputBroker(us, inputStream, this::close), "ServerInputBroker");
+            lobby.join(us, opponentType);
+
+        } catch (InterruptedException e) {
+            System.err.println("[WARN] ServerSideClientHandler.run: Thread interrupted.");
+        }
+    }
+
+    @Override
+    public void send(Message m) throws IOException {
+        if (closed) throw new IOException("Connection closed");
+        if (!outbound.offer(m)) {
+            System.err.println("[WARN] ServerSideClientHandler.send: Client isn't keeping up, disconnecting.");
+            close();
+            throw new IOException("Client too slow");
+        }
+        Thread writer = this.writer;
+        if (writer != null) LockSupport.unpark(writer);
+    }
+
+    /**
+     * Write frames from the mailbox to the socket as they turn up. Parks while
+     * there's nothing to send; send unparks it.
+     */
+    private void writeLoop() {
+        try {
+            while (!closed) {
+                ByteBuffer frame = outbound.poll();
+                if (frame == null) {
+                    outputStream.flush();
+                    LockSupport.parkNanos(WRITER_PARK_NANOS);
+                    continue;
+                }
+                outputStream.write(frame.array(), frame.position(), frame.remaining());
+            }
+        } catch (IOException e) {
+            System.err.println("[WARN] ServerSideClientHandler.writeLoop: " + e);
+            close();
+        }
+    }
+
+    private void close() {
+        HumanPlayer player = this.player;
+        if (player != null && !closed) player.disconnected();
+        closed = true;
+        outbound.clear();
+        try {
+            clientSocket.close();
+        } catch (IOException ignored) {}
+    }
+
+    private Message waitForMessage() throws InterruptedException {
+        try {
+            return MessageCodec.readFrame(inputStream);
+        } catch (InvalidObjectException e) {
+            System.err.println("[ERROR] ServerSideClientHandler.waitForMessage: Couldn't decode message.");
+        } catch (IOException e) {
+            System.err.println("[ERROR] ServerSideClientHandler.waitForMessage: IOException when reading object.");
+            throw new InterruptedException();
+        }
+        System.err.println("[WARN] ServerSideClientHandler.waitForMessage: returning null when Message should be returned.");
+        return null;
+    }
+}
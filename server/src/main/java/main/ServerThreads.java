@@ -0,0 +1,83 @@
+package main;
+
+import java.lang.reflect.Method;
+
+/**
+ * ServerThreads starts the threads the blocking server gives each connection
+ * and match. Normally they're ordinary platform threads, but with --virtual
+ * they're virtual threads instead (Java 21 and later), which park rather than
+ * hold on to an OS thread and its stack while they wait on a socket. The
+ * blocking code itself doesn't change.
+ *
+ * The game is built for Java 8, so virtual threads are looked up by
+ * reflection; on older runtimes they're reported as unavailable and platform
+ * threads are used.
+ */
+final class ServerThreads {
+
+    private static final Method OF_VIRTUAL;
+    private static final Method BUILDER_NAME;
+    private static final Method BUILDER_UNSTARTED;
+    static {
+        Method ofVirtual = null, name = null, unstarted = null;
+        try {
+            Class<?> builder = Class.forName("java.lang.Thread$Builder");
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            name = builder.getMethod("name", String.class);
+            unstarted = builder.getMethod("unstarted", Runnable.class);
+        } catch (ReflectiveOperationException ignored) {
+            // Pre-21 runtime: no virtual threads.
+        }
+        OF_VIRTUAL = ofVirtual;
+        BUILDER_NAME = name;
+        BUILDER_UNSTARTED = unstarted;
+    }
+
+    private static volatile boolean virtual = false;
+
+    private ServerThreads() {}
+
+    /**
+     * Whether this runtime can create virtual threads.
+     */
+    static boolean virtualAvailable() {
+        return OF_VIRTUAL != null;
+    }
+
+    /**
+     * Choose which kind of thread start() creates from now on.
+     * @param useVirtual Whether to use virtual threads.
+     * @return Whether virtual threads will actually be used; false if asked
+     *         for but not available.
+     */
+    static boolean useVirtual(boolean useVirtual) {
+        virtual = useVirtual && virtualAvailable();
+        return virtual;
+    }
+
+    static boolean isVirtual() {
+        return virtual;
+    }
+
+    /**
+     * Start a thread of whichever kind has been chosen.
+     * @param task What the thread runs.
+     * @param name The thread's name.
+     * @return The started thread.
+     */
+    static Thread start(Runnable task, String name) {
+        Thread thread = virtual ? newVirtual(task, name) : new Thread(task, name);
+        thread.start();
+        return thread;
+    }
+
+    private static Thread newVirtual(Runnable task, String name) {
+        try {
+            Object builder = BUILDER_NAME.invoke(OF_VIRTUAL.invoke(null), name);
+            return (Thread) BUILDER_UNSTARTED.invoke(builder, task);
+        } catch (ReflectiveOperationException e) {
+            System.err.println("[WARN] ServerThreads.newVirtual : Couldn't create a virtual thread, using a platform one: " + e);
+            return new Thread(task, name);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package main;
+
+/**
+ * A SyncTracker lets the server tell whether a client's own game is still
+ * exactly the same as the server's copy, so that the server can send a
+ * checksum in place of a snapshot.
+ *
+ * The server records the StateChecksum of the player's game after every
+ * physics step, keeping the last CHECKSUM_HISTORY of them, and is told
+ * whenever something other than physics changes the game (a move, or the
+ * opponent's power-up). Between those changes the game is fully
+ * determined by where it started. The client reports the checksum of its own
+ * game now and then, for ticks on the server's timeline, whenever it has no
+ * moves the server hasn't confirmed yet. If a report matches what the server
+ * had for the same tick, and nothing has changed the game since, the client
+ * is still in step.
+ *
+ * record, changed and inSync are called from the Match's thread, report from
+ * the connection's.
+ */
+final class SyncTracker {
+
+    /** How many of the client's latest reports to hold while the server catches up to their ticks. */
+    private static final int REPORTS = 8;
+
+    private final int[] ticks = new int[Constants.CHECKSUM_HISTORY];
+    private final long[] checksums = new long[Constants.CHECKSUM_HISTORY];
+    private int latestTick = -1;
+    private int changedTick = 0;
+    private boolean changePending = false;
+
+    private final int[] reportTicks = new int[REPORTS];
+    private final long[] reportChecksums = new long[REPORTS];
+    private int reportCount = 0;
+
+    private int inSyncTick = -1;
+    private long agreed = 0;
+    private long disagreed = 0;
+
+    SyncTracker() {
+        for (int i = 0; i < ticks.length; i++) ticks[i] = -1;
+    }
+
+    /**
+     * Record the game's checksum after a physics step.
+     */
+    void record(GameState game) {
+        int slot = game.tick % ticks.length;
+        ticks[slot] = game.tick;
+        checksums[slot] = StateChecksum.of(game);
+        latestTick = game.tick;
+        if (changePending) {
+            // The first checksum to include the change.
+            changedTick = game.tick;
+            changePending = false;
+        }
+    }
+
+    /**
+     * Note that the game has just been changed other than by physics, so the
+     * client can't be in step until it's reported a checksum from after it.
+     */
+    void changed() {
+        changePending = true;
+    }
+
+    /**
+     * Take a checksum the client reported for its own game.
+     * @param tick The tick, on the server's timeline, it's for.
+     */
+    synchronized void report(int tick, long checksum) {
+        if (reportCount == REPORTS) {
+            System.arraycopy(reportTicks, 1, reportTicks, 0, REPORTS - 1);
+            System.arraycopy(reportChecksums, 1, reportChecksums, 0, REPORTS - 1);
+            reportCount--;
+        }
+        reportTicks[reportCount] = tick;
+        reportChecksums[reportCount] = checksum;
+        reportCount++;
+    }
+
+    /**
+     * Check any reports for ticks we've now reached, and say whether the client
+     * is still in step with the server.
+     */
+    boolean inSync() {
+        synchronized (this) {
+            int kept = 0;
+            for (int i = 0; i < reportCount; i++) {
+                int tick = reportTicks[i];
+                if (tick > latestTick) {
+                    // We haven't got there yet; look again next time.
+                    reportTicks[kept] = tick;
+                    reportChecksums[kept] = reportChecksums[i];
+                    kept++;
+                    continue;
+                }
+                int slot = tick % ticks.length;
+                if (tick < 0 || ticks[slot] != tick) continue; // Too old to check.
+                if (checksums[slot] == reportChecksums[i]) {
+                    agreed++;
+                    inSyncTick = Math.max(inSyncTick, tick);
+                } else {
+                    disagreed++;
+                    inSyncTick = -1;
+                }
+            }
+            reportCount = kept;
+        }
+        return !changePending && inSyncTick >= 0 && inSyncTick >= changedTick;
+    }
+
+    /**
+     * The newest tick we have a checksum for, to send in place of a snapshot.
+     */
+    int getLatestTick() {
+        return latestTick;
+    }
+
+    long getLatestChecksum() {
+        return checksums[latestTick % checksums.length];
+    }
+
+    /** How many of the client's reports matched ours. */
+    synchronized long getAgreed() {
+        return agreed;
+    }
+
+    /** How many of the client's reports didn't: its game had drifted from ours. */
+    synchronized long getDisagreed() {
+        return disagreed;
+    }
+}
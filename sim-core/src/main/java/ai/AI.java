@@ -1,7 +1,6 @@
 package ai;
 
 import main.*;
-import org.apache.commons.math3.analysis.function.Constant;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -13,9 +12,10 @@ public class AI {
     /** We don't want to make more than one of these! */
     private static Random random = new Random();
 
-    /** Enum used to represent the domain of all possible moves the AI could make. */
+    /** Enum used to represent the domain of all possible moves the AI could make.
+     *  Only SearchAI ever jumps. */
     public enum Move {
-        LEFT, RIGHT, NO_MOVE
+        LEFT, RIGHT, NO_MOVE, JUMP
     }
 
     /**
@@ -28,6 +28,20 @@ public class AI {
         return Math.min(leftDist(p, b), rightDist(p, b));
     }
 
+    /**
+     * Returns the square of dist(p, b). Cheaper than dist when all that
+     * matters is which of two distances is smaller.
+     * @param p The Platform to find the distance from
+     * @param b The Ball to find the distance to
+     * @return The squared distance between the Ball, b, and the Platform, p
+     */
+    public static double distSq(Platform p, Ball b) {
+        double dy = b.getY() - p.y;
+        double left = b.getX() - p.x;
+        double right = b.getX() - (p.x + Constants.PLATFORM_WIDTH);
+        return Math.min(left * left, right * right) + dy * dy;
+    }
+
     /**
      * Returns the distance to the left side of a Platform, p,
      * from a Ball, b. Takes in to account the position the Ball
@@ -112,17 +126,38 @@ public class AI {
      * @return The optimal Platform
      */
     public static Platform choosePlatform(GameState game) {
-        Platform[] platforms = game.getBasicPlatforms();
+        PlatformIndex index = game.getPlatformIndex();
         Ball ball = game.getBall();
+        double bally = ball.getY();
 
-        /* Work out which platform is closest to us! */
+        /* Work out which platform is closest to us! Look outwards from the ball's
+         * height, and stop once platforms are further away vertically than the
+         * closest one we've found, since they can't be any closer. */
         Platform closestPlatform = null;
+        int closestSlot = -1;
         double minDist = Double.POSITIVE_INFINITY;
 
-        for(Platform platform : platforms) {
-            double d = dist(platform, ball);
-            if(!reachable(platform, ball) || d > minDist) continue;
+        int above = index.rankBelow(bally) - 1;
+        int below = above + 1;
+        while (above >= 0 || below < index.size()) {
+            int rank;
+            if (above < 0) rank = below++;
+            else if (below >= index.size() || index.get(below) == null) rank = above--;
+            else if (bally - index.get(above).y <= index.get(below).y - bally) rank = above--;
+            else rank = below++;
+
+            Platform platform = index.get(rank);
+            if (platform == null) break;
+            double dy = bally - platform.y;
+            if (dy * dy > minDist) break;
+
+            double d = distSq(platform, ball);
+            if (!reachable(platform, ball) || d > minDist) continue;
+            /* On a tie, the platform in the later slot wins */
+            int slot = index.slot(rank);
+            if (d == minDist && slot < closestSlot) continue;
             closestPlatform = platform;
+            closestSlot = slot;
             minDist = d;
         }
         return closestPlatform;
@@ -140,15 +175,23 @@ public class AI {
     public static Move getMove(GameState game) {
         Platform optimalPlatform = choosePlatform(game);
         if(optimalPlatform == null) return Move.NO_MOVE;
+        return moveTowards(game.getBall(), optimalPlatform);
+    }
 
-        /* Work out if the optimal platform is to the left, right or where we are (horizontally) */
-        Ball ball = game.getBall();
-        double ballx = ball.getX();
-        double platformx = optimalPlatform.getX() + Constants.PLATFORM_WIDTH/2; /* Aim for the center of the Platform */
+    /**
+     * Returns the Move that takes a Ball, b, towards the center of a Platform, p.
+     * @param b The Ball to move
+     * @param p The Platform to move towards
+     * @return LEFT, RIGHT, or NO_MOVE if the Ball is already over the center
+     */
+    public static Move moveTowards(Ball b, Platform p) {
+        /* Work out if the platform is to the left, right or where we are (horizontally) */
+        double ballx = b.getX();
+        double platformx = p.getX() + Constants.PLATFORM_WIDTH/2; /* Aim for the center of the Platform */
 
         double diff = ballx - platformx;
         if(diff == 0) return Move.NO_MOVE; /* Don't move if we're above the platform */
-        return (ballx - platformx > 0) ? Move.LEFT : Move.RIGHT; /* Move in the direction of the platform */
+        return (diff > 0) ? Move.LEFT : Move.RIGHT; /* Move in the direction of the platform */
     }
 
 }
\ No newline at end of file
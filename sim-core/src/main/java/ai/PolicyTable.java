@@ -0,0 +1,257 @@
+package ai;
+
+import main.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A PolicyTable answers "which way should the AI move" by looking it up, so
+ * an AIPlayer costs next to nothing per tick. The state is cut into buckets:
+ * the ball's x, dx, dy and gravity, and where the target platform is relative
+ * to the ball. The target is read straight off the PlatformIndex (see
+ * target), so a lookup does a fixed amount of work however many platforms
+ * there are. Each cell holds the best move for that state, worked out ahead
+ * of time by PolicyTableBuilder simulating every move from every cell.
+ *
+ * The table is a file, mapped into memory read-only, so every AIPlayer on a
+ * server shares the one copy and lookups are safe from any thread. States
+ * that fall outside the table (a gravity it doesn't cover, say), or cells
+ * where no move came out ahead, give null, and getMove falls back to heading
+ * for the target's centre as AI.getMove would. The file is:
+ *
+ *   header   magic(4) version(4) then count(4) for each axis, in order
+ *   cells    2 bits per cell, four to a byte, lowest bits first:
+ *            0 unknown, 1 LEFT, 2 RIGHT, 3 NO_MOVE
+ */
+public final class PolicyTable {
+
+    /** One bucketed dimension of the state: count buckets of a width, from min. */
+    public static final class Axis {
+        private final double min;
+        private final double width;
+        private final int count;
+
+        Axis(double min, double width, int count) {
+            this.min = min;
+            this.width = width;
+            this.count = count;
+        }
+
+        public int count() {
+            return count;
+        }
+
+        /** The value at the middle of a bucket. */
+        public double centre(int bucket) {
+            return at(bucket, 0.5);
+        }
+
+        /** The value a fraction of the way across a bucket. */
+        public double at(int bucket, double fraction) {
+            return min + (bucket + fraction) * width;
+        }
+
+        /** The bucket a value falls in, or -1 if it's outside them all. */
+        int bucket(double value) {
+            double b = Math.floor((value - min) / width);
+            return b < 0 || b >= count ? -1 : (int) b;
+        }
+
+        /** The bucket a value falls in, taking the end buckets for values past them. */
+        int clampedBucket(double value) {
+            double b = Math.floor((value - min) / width);
+            return b < 0 ? 0 : b >= count ? count - 1 : (int) b;
+        }
+    }
+
+    /* Ball speeds are bounded by the game, so those two axes clamp. dx only
+     * ever takes multiples of AGILITY up to MAX_SPEED. */
+    public static final Axis BALL_X = new Axis(0, 300, 4);
+    public static final Axis BALL_DX = new Axis(-2.5 * Constants.AGILITY, Constants.AGILITY, 5);
+    public static final Axis BALL_DY = new Axis(-Constants.MAX_SPEED, 10, 12);
+    public static final Axis GRAVITY = new Axis(4, Constants.GRAVITY_UP_STEP, 6);
+    /** From the ball to the middle of the target platform's top. */
+    public static final Axis OFFSET_X = new Axis(-Constants.WINDOW_WIDTH, 60, 40);
+    public static final Axis OFFSET_Y = new Axis(-Constants.WINDOW_HEIGHT, 60, 20);
+
+    /** How many platforms above and below the ball's height target looks at. */
+    private static final int NEIGHBOURS = 2;
+
+    private static final Axis[] AXES = {BALL_X, BALL_DX, BALL_DY, GRAVITY, OFFSET_X, OFFSET_Y};
+    public static final int CELLS = BALL_X.count() * BALL_DX.count() * BALL_DY.count()
+            * GRAVITY.count() * OFFSET_X.count() * OFFSET_Y.count();
+
+    private static final int MAGIC = 0x534A5054; // "SJPT"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 4 + 4 + 4 * AXES.length;
+
+    /** Cell codes. */
+    public static final byte UNKNOWN = 0;
+    private static final AI.Move[] MOVES = {null, AI.Move.LEFT, AI.Move.RIGHT, AI.Move.NO_MOVE};
+
+    private static PolicyTable shared;
+    private static boolean sharedLoaded = false;
+
+    private final ByteBuffer cells;
+
+    private PolicyTable(ByteBuffer cells) {
+        this.cells = cells;
+    }
+
+    /**
+     * The table at Constants.AI_POLICY_TABLE, mapped the first time it's asked
+     * for and shared from then on.
+     * @return The table, or null if there isn't a usable one.
+     */
+    public static synchronized PolicyTable shared() {
+        if (!sharedLoaded) {
+            sharedLoaded = true;
+            try {
+                shared = load(Paths.get(Constants.AI_POLICY_TABLE));
+                System.out.println("[INFO] PolicyTable.shared : Mapped " + Constants.AI_POLICY_TABLE + ".");
+            } catch (IOException e) {
+                System.err.println("[WARN] PolicyTable.shared : Couldn't load " + Constants.AI_POLICY_TABLE
+                        + ", the AI will use AI.getMove. " + e.getMessage());
+            }
+        }
+        return shared;
+    }
+
+    /**
+     * Map a table written by write.
+     * @throws IOException If it can't be read, or was built for different buckets.
+     */
+    public static PolicyTable load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long expected = HEADER_BYTES + (CELLS + 3) / 4;
+            if (channel.size() != expected) throw new IOException("Expected " + expected + " bytes, found " + channel.size());
+
+            MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, expected);
+            if (map.getInt() != MAGIC || map.getInt() != VERSION) throw new IOException("Not a policy table");
+            for (Axis axis : AXES) {
+                if (map.getInt() != axis.count()) throw new IOException("Built for different buckets");
+            }
+            return new PolicyTable(map.slice());
+        }
+    }
+
+    /**
+     * Write a table.
+     * @param codes The code for every cell, from codeOf.
+     */
+    public static void write(Path file, byte[] codes) throws IOException {
+        if (codes.length != CELLS) throw new IllegalArgumentException("Need " + CELLS + " cells, got " + codes.length);
+        ByteBuffer out = ByteBuffer.allocate(HEADER_BYTES + (CELLS + 3) / 4);
+        out.putInt(MAGIC);
+        out.putInt(VERSION);
+        for (Axis axis : AXES) out.putInt(axis.count());
+        for (int i = 0; i < CELLS; i += 4) {
+            int packed = 0;
+            for (int j = 0; j < 4 && i + j < CELLS; j++) packed |= (codes[i + j] & 3) << (2 * j);
+            out.put((byte) packed);
+        }
+        out.flip();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (out.hasRemaining()) channel.write(out);
+        }
+    }
+
+    /**
+     * The cell code for a move; JUMP isn't in the table.
+     */
+    public static byte codeOf(AI.Move move) {
+        if (move == null) return UNKNOWN;
+        switch (move) {
+            case LEFT: return 1;
+            case RIGHT: return 2;
+            case NO_MOVE: return 3;
+            default: return UNKNOWN;
+        }
+    }
+
+    /**
+     * The cell for a combination of buckets, one per axis.
+     */
+    public static int cell(int x, int dx, int dy, int gravity, int offsetX, int offsetY) {
+        return ((((x * BALL_DX.count() + dx) * BALL_DY.count() + dy) * GRAVITY.count() + gravity)
+                * OFFSET_X.count() + offsetX) * OFFSET_Y.count() + offsetY;
+    }
+
+    /**
+     * The cell for a ball and the platform it's making for.
+     * @return The cell, or -1 if the state is outside the table.
+     */
+    public static int cellOf(Ball ball, Platform target) {
+        int gravity = GRAVITY.bucket(ball.getGravity());
+        int offsetX = OFFSET_X.bucket(target.getX() + Constants.PLATFORM_WIDTH / 2 - ball.getX());
+        int offsetY = OFFSET_Y.bucket(target.getY() - ball.getY());
+        if (gravity < 0 || offsetX < 0 || offsetY < 0) return -1;
+        return cell(BALL_X.clampedBucket(ball.getX()), BALL_DX.clampedBucket(ball.getDx()),
+                BALL_DY.clampedBucket(ball.getDy()), gravity, offsetX, offsetY);
+    }
+
+    /**
+     * The move stored for a cell, or null if there isn't one.
+     */
+    public AI.Move get(int cell) {
+        return MOVES[(cells.get(cell >>> 2) >>> (2 * (cell & 3))) & 3];
+    }
+
+    /**
+     * The platform a game's cell is keyed on: the nearest reachable one of the
+     * NEIGHBOURS platforms either side of the ball's height. Unlike
+     * AI.choosePlatform, which looks further out until no platform could be
+     * nearer, this only ever looks at those few, so it's usually, but not
+     * always, the platform AI.choosePlatform would pick.
+     * @return The platform, or null if none of them is reachable.
+     */
+    public static Platform target(GameState game) {
+        PlatformIndex index = game.getPlatformIndex();
+        Ball ball = game.getBall();
+        int below = index.rankBelow(ball.getY());
+        Platform target = null;
+        double minDist = Double.POSITIVE_INFINITY;
+        for (int rank = Math.max(0, below - NEIGHBOURS); rank < Math.min(index.size(), below + NEIGHBOURS); rank++) {
+            Platform platform = index.get(rank);
+            if (platform == null) break;
+            if (!AI.reachable(platform, ball)) continue;
+            double d = AI.distSq(platform, ball);
+            if (d < minDist) {
+                target = platform;
+                minDist = d;
+            }
+        }
+        return target;
+    }
+
+    /**
+     * Look up the move for a game.
+     * @return The move, or null if the table doesn't cover this state.
+     */
+    public AI.Move lookup(GameState game) {
+        Platform target = target(game);
+        if (target == null) return null;
+        int cell = cellOf(game.getBall(), target);
+        return cell < 0 ? null : get(cell);
+    }
+
+    /**
+     * The move for a game: the table's if it has one, otherwise towards the
+     * target's centre, and AI.getMove's if there's no target near the ball.
+     */
+    public AI.Move getMove(GameState game) {
+        Platform target = target(game);
+        if (target == null) return AI.getMove(game);
+        Ball ball = game.getBall();
+        int cell = cellOf(ball, target);
+        AI.Move move = cell < 0 ? null : get(cell);
+        return move != null ? move : AI.moveTowards(ball, target);
+    }
+}
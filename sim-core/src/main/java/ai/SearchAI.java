@@ -0,0 +1,225 @@
+package ai;
+
+import main.*;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A SearchAI picks each move by trying out what would happen. It copies the
+ * GameState, plays a number of candidate plans on the copy for a few hundred
+ * milliseconds of game time, and makes the first move of the plan that ends
+ * up best. Since the copies run the same physics as the real game, it sees
+ * gravity power-ups, moving platforms and the double jump, which the greedy
+ * AI.getMove doesn't.
+ *
+ * A plan splits the lookahead into segments and holds one move through each
+ * of them: LEFT, RIGHT, NO_MOVE, or following AI.getMove step by step. It can
+ * start with a double jump. Plans that hold one move throughout are tried
+ * first, so that when the budget runs out every first move has usually had a
+ * look. The budget is checked after every simulated step, and a plan cut
+ * short is ignored. If nothing finished in time we fall back to AI.getMove.
+ *
+ * A SearchAI keeps a scratch buffer between calls, so give each player its own.
+ */
+public class SearchAI {
+
+    /** How far ahead to look, and how many plans to weigh up. */
+    public enum Difficulty {
+        EASY(150, 1, false),
+        NORMAL(300, 2, true),
+        HARD(450, 3, true);
+
+        final int horizonMs;
+        final int segments;
+        final boolean jumps;
+
+        Difficulty(int horizonMs, int segments, boolean jumps) {
+            this.horizonMs = horizonMs;
+            this.segments = segments;
+            this.jumps = jumps;
+        }
+    }
+
+    /** Moves a plan can hold through a segment. */
+    private static final int HOLD_NONE = 0;
+    private static final int HOLD_LEFT = 1;
+    private static final int HOLD_RIGHT = 2;
+    private static final int FOLLOW_GREEDY = 3;
+    private static final int HOLDS = 4;
+
+    /** Scores for how a plan ends up. DEAD is for a plan that loses the game,
+     *  plus how many steps it lasted. */
+    public static final double DEAD = -1e9;
+    private static final double HEIGHT_WEIGHT = 1;
+    private static final double PLATFORM_DIST_WEIGHT = 2;
+
+    private final long budgetNanos;
+    private final Difficulty difficulty;
+    private final int steps;
+    /** Each plan is {jump, hold for segment 0, hold for segment 1, ...}. */
+    private final int[][] plans;
+    private ByteBuffer root = ByteBuffer.allocate(1024);
+
+    private long decisions = 0;
+    private long rollouts = 0;
+    private long cutoffs = 0;
+
+    /**
+     * @param budgetNanos How long each call to getMove may spend searching.
+     * @param difficulty How far ahead to look, and which plans to try.
+     */
+    public SearchAI(long budgetNanos, Difficulty difficulty) {
+        this.budgetNanos = budgetNanos;
+        this.difficulty = difficulty;
+        this.steps = Math.max(1, difficulty.horizonMs / Constants.SIM_TICK_MS);
+        this.plans = makePlans(difficulty);
+    }
+
+    /**
+     * List every plan for a difficulty, plans that hold one move throughout first.
+     */
+    private static int[][] makePlans(Difficulty difficulty) {
+        int segments = difficulty.segments;
+        int combinations = 1;
+        for (int i = 0; i < segments; i++) combinations *= HOLDS;
+        int jumpChoices = difficulty.jumps ? 2 : 1;
+
+        int[][] plans = new int[combinations * jumpChoices][];
+        int count = 0;
+        for (int pass = 0; pass < 2; pass++) {
+            for (int jump = 0; jump < jumpChoices; jump++) {
+                for (int c = 0; c < combinations; c++) {
+                    int[] plan = new int[segments + 1];
+                    plan[0] = jump;
+                    boolean uniform = true;
+                    for (int s = 0, rest = c; s < segments; s++, rest /= HOLDS) {
+                        plan[s + 1] = rest % HOLDS;
+                        if (plan[s + 1] != plan[1]) uniform = false;
+                    }
+                    if (uniform == (pass == 0)) plans[count++] = plan;
+                }
+            }
+        }
+        return plans;
+    }
+
+    /**
+     * Work out the best move to make now.
+     * @param game The AI's GameState. It isn't changed.
+     * @return The first move of the best plan found within the budget.
+     */
+    public AI.Move getMove(GameState game) {
+        if (game == null || game.gameOver()) return AI.Move.NO_MOVE;
+        long deadline = System.nanoTime() + budgetNanos;
+        decisions++;
+
+        int size = GameStateCodec.encodedSize(game);
+        if (root.capacity() < size) root = ByteBuffer.allocate(size);
+        root.clear();
+        GameStateCodec.write(game, root);
+        root.flip();
+
+        int startScore = game.getScore();
+        int bestPlan = -1;
+        double bestValue = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < plans.length; i++) {
+            if (plans[i][0] == 1 && game.getBall().doubleJump != 0) continue; // Can't jump yet.
+            double value = rollout(plans[i], startScore, deadline);
+            if (Double.isNaN(value)) {
+                cutoffs++;
+                break;
+            }
+            rollouts++;
+            if (value > bestValue) {
+                bestValue = value;
+                bestPlan = i;
+            }
+        }
+
+        if (bestPlan < 0) return AI.getMove(game);
+        if (plans[bestPlan][0] == 1) return AI.Move.JUMP;
+        return firstMove(plans[bestPlan][1], game);
+    }
+
+    /**
+     * Play a plan out on a copy of the game.
+     * @return How good the result is, or NaN if the deadline passed first.
+     */
+    private double rollout(int[] plan, int startScore, long deadline) {
+        root.rewind();
+        GameState sim = GameStateCodec.read(root);
+        int segments = plan.length - 1;
+
+        for (int step = 0; step < steps; step++) {
+            if (step == 0 && plan[0] == 1) {
+                sim.handleInput("Space");
+            } else {
+                String move = moveFor(plan[1 + step * segments / steps], sim);
+                if (move != null) sim.handleInput(move);
+            }
+            sim.updatePhysics(Constants.SIM_TICK_MS);
+            if (sim.gameOver()) return DEAD + step;
+            if (System.nanoTime() >= deadline) return Double.NaN;
+        }
+        return evaluate(sim, startScore);
+    }
+
+    /**
+     * Score a game at the end of a plan: points earned, how high the ball is,
+     * and how far it is from a platform it could land on.
+     * @param startScore The game's score when the plan started.
+     */
+    public static double evaluate(GameState sim, int startScore) {
+        Ball ball = sim.getBall();
+        Platform target = AI.choosePlatform(sim);
+        double platformDist = target == null ? Constants.WINDOW_HEIGHT : Math.sqrt(AI.distSq(target, ball));
+        return (sim.getScore() - startScore)
+                - HEIGHT_WEIGHT * ball.getY()
+                - PLATFORM_DIST_WEIGHT * platformDist;
+    }
+
+    private static String moveFor(int hold, GameState sim) {
+        switch (hold) {
+            case HOLD_LEFT: return "a";
+            case HOLD_RIGHT: return "d";
+            case FOLLOW_GREEDY:
+                AI.Move move = AI.getMove(sim);
+                if (move == AI.Move.LEFT) return "a";
+                if (move == AI.Move.RIGHT) return "d";
+                return null;
+            default: return null;
+        }
+    }
+
+    private static AI.Move firstMove(int hold, GameState game) {
+        switch (hold) {
+            case HOLD_LEFT: return AI.Move.LEFT;
+            case HOLD_RIGHT: return AI.Move.RIGHT;
+            case FOLLOW_GREEDY: return AI.getMove(game);
+            default: return AI.Move.NO_MOVE;
+        }
+    }
+
+    public long getBudgetNanos() {
+        return budgetNanos;
+    }
+
+    public Difficulty getDifficulty() {
+        return difficulty;
+    }
+
+    /** How many moves have been asked for. */
+    public long getDecisions() {
+        return decisions;
+    }
+
+    /** How many plans were played out in full. */
+    public long getRollouts() {
+        return rollouts;
+    }
+
+    /** How many times the budget ran out before every plan had been tried. */
+    public long getCutoffs() {
+        return cutoffs;
+    }
+}
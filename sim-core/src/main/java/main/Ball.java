@@ -1,9 +1,8 @@
 package main;
 
-import java.io.Serializable;
 import java.util.Random;
 
-public class Ball implements Serializable {
+public class Ball {
 
     private double x;
     private double y;
@@ -51,6 +50,16 @@ public class Ball implements Serializable {
         }
     }
 
+    /**
+     * Where the bottom of the ball will be after moving for deltaTime at its
+     * current speed. Platforms check for a collision against this, and
+     * GameState finds the platforms near the ball with it, so the two always
+     * agree on how far the ball can fall.
+     */
+    double bottomAfter(double deltaTime) {
+        return y + radius + dy * deltaTime;
+    }
+
     void update(GameState game, double timeStep) {
         if (timeStep == 0) return;
         double deltaTime = timeStep * Constants.TIME_STEP_COEFFICIENT;
@@ -76,8 +85,7 @@ public class Ball implements Serializable {
 
         // Check if we're inside the Fly powerup. If so, ignore Y changes.
         if (countFlyPower > 0) {
-            if (countFlyPower == 1 && AudioEngine.isClient)
-                AudioEngine.getInstance().stopTrack(AudioEngine.WHOOSH);
+            if (countFlyPower == 1) game.events.emit(GameEvents.FLY_STOP);
             countFlyPower--;
             return;
         }
@@ -116,7 +124,7 @@ public class Ball implements Serializable {
         return x;
     }
 
-    void setX(double x) {
+    public void setX(double x) {
         this.x = x;
     }
 
@@ -124,7 +132,7 @@ public class Ball implements Serializable {
         return y;
     }
 
-    void setY(double y) {
+    public void setY(double y) {
         this.y = y;
     }
 
@@ -132,20 +140,20 @@ public class Ball implements Serializable {
         this.dy = dy;
     }
 
-    double getGravity() {
+    public double getGravity() {
         return gravity;
     }
 
-    void setGravity(double gravity) {
-        if(gravity > this.gravity && AudioEngine.isClient) {
-            AudioEngine.getInstance().playTrack(AudioEngine.GRAVUP);
-        } else if(gravity < this.gravity && AudioEngine.isClient) {
-            AudioEngine.getInstance().playTrack(AudioEngine.GRAVDOWN);
+    void setGravity(GameState game, double gravity) {
+        if(gravity > this.gravity) {
+            game.events.emit(GameEvents.GRAVITY_UP);
+        } else if(gravity < this.gravity) {
+            game.events.emit(GameEvents.GRAVITY_DOWN);
         }
         this.gravity = gravity;
     }
 
-    int getRadius() {
+    public int getRadius() {
         return radius;
     }
 
@@ -181,4 +189,30 @@ public class Ball implements Serializable {
         return heightLocked;
     }
 
+    /**
+     * Move the ball without touching anything else. Used when rendering an
+     * interpolated state.
+     */
+    public void setPosition(double x, double y) {
+        this.x = x;
+        this.y = y;
+    }
+
+    /**
+     * Overwrite the ball's dynamic state in one go, without any of the side
+     * effects of the individual setters. Used when decoding a network snapshot.
+     */
+    void restore(double x, double y, double dx, double dy, double gravity,
+                 int countFlyPower, int doubleJump, boolean heightLocked, boolean gameOver) {
+        this.x = x;
+        this.y = y;
+        this.dx = dx;
+        this.dy = dy;
+        this.gravity = gravity;
+        this.countFlyPower = countFlyPower;
+        this.doubleJump = doubleJump;
+        this.heightLocked = heightLocked;
+        this.gameOver = gameOver;
+    }
+
 }
\ No newline at end of file
@@ -3,7 +3,7 @@ package main;
 
 public abstract class CollidablePlatform {
 
-    protected void checkForCollision(Ball ball, double deltaTime, double x, double y, double width) {
+    protected void checkForCollision(Ball ball, GameState game, double deltaTime, double x, double y, double width) {
         double ballX = ball.getX();
         double ballY = ball.getY();
         int radius = ball.getRadius();
@@ -26,7 +26,7 @@ public abstract class CollidablePlatform {
         if (ballX-radius > rectRight) return;
 
         // If the ball has collided with the top of the platform ~Tom
-        if (AudioEngine.isClient) AudioEngine.getInstance().playTrack(AudioEngine.BLOP); // Play the boing sound
+        game.events.emit(GameEvents.BOUNCE); // Play the boing sound
         ball.setDy(-ball.getMaxSpeed());
         ball.setY(rectTop - radius);
     }
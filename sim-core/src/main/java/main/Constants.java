@@ -0,0 +1,101 @@
+package main;
+
+public class Constants {
+    public static final int WINDOW_WIDTH = 600*2;
+    public static final int WINDOW_HEIGHT = 600;
+
+    public static final int PORT = 8080;
+    public static final String HOST = "localhost";
+
+    public static final int TARGET_FPS = 60;
+    public static final int MAX_TIME_PER_FRAME = 1000/TARGET_FPS;
+
+    public static final String TITLE = "Space Jump";
+
+	public static final int PLATFORM_START_DY = 10;
+	public static final int ITEM_START_DY = 10;
+
+	public static final float GRAVITY = 6.9f/1.337f;
+
+    public static final int AGILITY = 20;
+
+    public static final int MAX_SPEED = 60;
+    public static final double GAME_SPEED = 50;
+
+    public static final double TIME_STEP_COEFFICIENT = 1/GAME_SPEED;
+
+    public static final int FLY_POWERUP_SPEED = 450;
+    public static final int MAX_BALL_HEIGHT = WINDOW_HEIGHT / 4;
+    public static final int MOVING_PLATFORM_DX = 30;
+    public static final double MIN_TIME_PER_FRAME = 1000 / 240;
+
+    public static final boolean FIXED_TIMESTEP = true;
+    public static final int SIM_TICK_MS = 6;
+    public static final int MAX_CATCH_UP_STEPS = 5;
+
+    public static final boolean CLIENT_PREDICTION = true;
+    public static final int INPUT_HISTORY = 256;
+    public static final int MAX_REPLAY_TICKS = 200;
+    public static final boolean INTERPOLATE_OPPONENT = true;
+    public static final int INTERP_BUFFER = 8;
+    public static final int INTERP_DELAY_MS = 250;
+    // Lockstep: the server relays inputs instead of game states (needs FIXED_TIMESTEP).
+    public static final boolean LOCKSTEP = false;
+    public static final int LOCKSTEP_CHECKSUM_TICKS = 50;
+    // Clients report checksums of their own game, and the server sends a checksum
+    // instead of a snapshot while they match (see SyncTracker).
+    public static final boolean CHECKSUM_SNAPSHOTS = CLIENT_PREDICTION && FIXED_TIMESTEP && !LOCKSTEP;
+    public static final int CHECKSUM_HISTORY = 256;
+
+    // How many sound events a GameState holds between the client draining them.
+    public static final int GAME_EVENT_CAPACITY = 32;
+
+    public static final int ITEM_RADIUS = 10;
+
+    public static final int CIRCLE_SIDES = 8;
+
+    public static final int SRVR_MS_PER_UPDT = 6;
+    public static final int SRVR_TICKS_PER_SNAPSHOT = SRVR_MS_PER_UPDT;
+    public static final int MAX_MOVES_PER_TICK = 64;
+    public static final int CHECKSUM_REPORT_TICKS = SRVR_TICKS_PER_SNAPSHOT;
+    public static final int SRVR_TICKS_PER_OPP_SNAPSHOT = INTERPOLATE_OPPONENT ? 3 * SRVR_TICKS_PER_SNAPSHOT : SRVR_TICKS_PER_SNAPSHOT;
+    public static final int SERVER_IO_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    public static final int SERVER_ACCEPT_BACKLOG = 4096;
+    public static final int MAILBOX_CAPACITY = 64;
+    public static final int SLOW_CONSUMER_MS = 3000;
+    public static final int LOBBY_WAIT_MS = 10000;
+    public static final int MATCH_WORKER_THREADS = Runtime.getRuntime().availableProcessors();
+
+    public static final boolean DELTA_SNAPSHOTS = true;
+    public static final boolean UDP_SNAPSHOTS = false;
+    public static final int UDP_TIMEOUT_MS = 5000;
+    public static final int SNAPSHOT_HISTORY = 32;
+    public static final int SNAPSHOT_KEYFRAME_INTERVAL = 120;
+
+    public static final int PLATFORM_WIDTH = 200;
+    public static final int PLATFORM_HEIGHT = 20;
+
+    public static final double AI_MAX_DIST = 400.00;
+    // Whether the server's AI searches ahead (see ai.SearchAI) rather than steering
+    // greedily. Off by default: a searching AI takes up to the budget on every
+    // SRVR_MS_PER_UPDT tick, so a core runs about 12 AI matches (6 if every move
+    // uses the whole budget) rather than thousands, and it's much harder to beat.
+    // The difficulty is the name of a SearchAI.Difficulty.
+    public static final boolean AI_SEARCH = false;
+    public static final long AI_SEARCH_BUDGET_NS = 1000000;
+    public static final String AI_DIFFICULTY = "NORMAL";
+    // Without the search, the AI looks its moves up in this table if it's there
+    // (see ai.PolicyTable; build it with main.PolicyTableBuilder).
+    public static final String AI_POLICY_TABLE = "ai-policy.bin";
+
+    public static final int GRAVITY_UP_STEP = 2;
+    public static final int GRAVITY_DOWN_STEP = 2;
+    public static final int GRAVITY_DOWN_THRESH = 7;
+
+    public static final int POINT_ITEM_STEP = 3000;
+
+    public static final String LOADING_SCREEN_TEXT = "searching...";
+    public static final String GAME_WIN_TEXT = "Success!"; // "Victory!"; //"You VVin!";
+    public static final String GAME_LOSE_TEXT = "Defeat..."; //"You Lose!";
+}
+
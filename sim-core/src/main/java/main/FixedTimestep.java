@@ -0,0 +1,84 @@
+package main;
+
+/**
+ * A FixedTimestep turns the irregular wall-clock time between calls into a
+ * whole number of fixed-size simulation steps, carrying any remainder over
+ * to the next call. Physics driven this way does the same thing regardless
+ * of load, which means the server and every client simulate identically.
+ *
+ * If more than maxCatchUpSteps steps are owed in one go (say, after a GC
+ * pause or when the box is overloaded), only maxCatchUpSteps are run and the
+ * rest of the backlog is dropped: the game briefly slows down rather than
+ * spiralling into ever-longer catch-up bursts.
+ */
+public class FixedTimestep {
+
+    private final long stepNanos;
+    private final int maxCatchUpSteps;
+    private long lastTime = 0;
+    private long accumulator = 0;
+    private long droppedSteps = 0;
+
+    /**
+     * @param stepMillis The simulated time per step, in milliseconds.
+     * @param maxCatchUpSteps The most steps advance will ever ask for at once.
+     */
+    public FixedTimestep(double stepMillis, int maxCatchUpSteps) {
+        this.stepNanos = (long) (stepMillis * 1_000_000);
+        this.maxCatchUpSteps = maxCatchUpSteps;
+    }
+
+    /**
+     * Account for the time since the last call.
+     * @return How many fixed steps the caller should simulate now.
+     */
+    public int advance() {
+        return advance(System.nanoTime());
+    }
+
+    /**
+     * Account for the time since the last call, by a clock of the caller's
+     * own (e.g. a simulated one).
+     * @param now The time now, in nanoseconds. Must be positive.
+     * @return How many fixed steps the caller should simulate now.
+     */
+    public int advance(long now) {
+        if (lastTime == 0) {
+            lastTime = now;
+            return 0;
+        }
+        accumulator += now - lastTime;
+        lastTime = now;
+
+        long owed = accumulator / stepNanos;
+        if (owed > maxCatchUpSteps) {
+            droppedSteps += owed - maxCatchUpSteps;
+            accumulator = 0;
+            return maxCatchUpSteps;
+        }
+        accumulator -= owed * stepNanos;
+        return (int) owed;
+    }
+
+    /**
+     * Forget any time owed so far, e.g. when a new game starts.
+     */
+    public void reset() {
+        lastTime = 0;
+        accumulator = 0;
+    }
+
+    /**
+     * How far we are into the next step, from 0 to 1.
+     */
+    public double getAlpha() {
+        return accumulator / (double) stepNanos;
+    }
+
+    /**
+     * How many steps have been dropped by the catch-up limit so far.
+     */
+    public long getDroppedSteps() {
+        return droppedSteps;
+    }
+}
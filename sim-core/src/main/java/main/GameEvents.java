@@ -0,0 +1,58 @@
+package main;
+
+/**
+ * GameEvents collects the things that happened during a GameState's updates
+ * that someone outside the simulation might want to react to (sounds, for
+ * now): a bounce, a pickup, and so on. The simulation only records them; the
+ * client plays them once it's done updating (see Main.playEvents), and the
+ * server turns recording off, so the physics never touches OpenAL or the
+ * network itself.
+ *
+ * Events are stored as ints in a fixed array, so recording one never
+ * allocates. If more happen between drains than there's room for, the extras
+ * are dropped.
+ */
+public final class GameEvents {
+
+    public static final int BOUNCE = 0;
+    public static final int GRAVITY_UP = 1;
+    public static final int GRAVITY_DOWN = 2;
+    public static final int POINTS = 3;
+    public static final int FLY_START = 4;
+    public static final int FLY_STOP = 5;
+    public static final int PLATFORM_DELETE = 6;
+
+    private final int[] events = new int[Constants.GAME_EVENT_CAPACITY];
+    private int count = 0;
+    private boolean enabled = true;
+
+    /**
+     * Record that something happened, if we're recording.
+     * @param event One of the event constants.
+     */
+    void emit(int event) {
+        if (!enabled || count == events.length) return;
+        events[count++] = event;
+    }
+
+    /**
+     * Turn recording on or off. The server turns it off, since nobody there
+     * listens.
+     */
+    void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        if (!enabled) count = 0;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public int get(int index) {
+        return events[index];
+    }
+
+    public void clear() {
+        count = 0;
+    }
+}
@@ -0,0 +1,83 @@
+package main;
+
+/**
+ * A GameRandom is the source of every procedural decision in a game: where
+ * platforms go, what kind they are, which items spawn and where.
+ *
+ * Rather than drawing from one long sequence, each spawn reseeds it from the
+ * match's seed, a stream (platforms or items) and that stream's spawn index,
+ * then draws as many numbers as the spawn needs. So the nth platform of a
+ * match is laid out the same whatever else has spawned before it, and two
+ * games with the same seed, spawn counts and inputs stay identical, which is
+ * what lockstep play relies on. Within a spawn (and from a freshly built
+ * GameRandom) the numbers are exactly those java.util.Random would give.
+ */
+public class GameRandom {
+
+    /** Spawn streams. */
+    static final int PLATFORMS = 1;
+    static final int ITEMS = 2;
+
+    private static final long MULTIPLIER = 0x5DEECE66DL;
+    private static final long ADDEND = 0xBL;
+    private static final long MASK = (1L << 48) - 1;
+
+    private final long seed;
+    private long state;
+
+    GameRandom(long seed) {
+        this.seed = seed;
+        restart();
+    }
+
+    /**
+     * Go back to giving the numbers a freshly built GameRandom would.
+     */
+    void restart() {
+        state = (seed ^ MULTIPLIER) & MASK;
+    }
+
+    /**
+     * Start drawing numbers for a spawn.
+     * @param stream The stream it comes from, PLATFORMS or ITEMS.
+     * @param index How many spawns that stream has had before this one.
+     */
+    void spawn(int stream, int index) {
+        long key = ((long) stream << 32) | (index & 0xFFFFFFFFL);
+        state = (mix(seed ^ mix(key)) ^ MULTIPLIER) & MASK;
+    }
+
+    /**
+     * The SplitMix64 finaliser: spreads every bit of z over the whole result,
+     * so neighbouring spawn indices give unrelated sequences.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private int next(int bits) {
+        state = (state * MULTIPLIER + ADDEND) & MASK;
+        return (int) (state >>> (48 - bits));
+    }
+
+    /**
+     * Returns a number in [0, bound), matching java.util.Random#nextInt(int).
+     * @param bound The (exclusive) upper bound. Must be positive.
+     */
+    int nextInt(int bound) {
+        if (bound <= 0) throw new IllegalArgumentException("bound must be positive");
+
+        int r = next(31);
+        int m = bound - 1;
+        if ((bound & m) == 0) return (int) ((bound * (long) r) >> 31);
+
+        for (int u = r; u - (r = u % bound) + m < 0; u = next(31));
+        return r;
+    }
+
+    long getSeed() {
+        return seed;
+    }
+}
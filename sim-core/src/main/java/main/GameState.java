@@ -0,0 +1,570 @@
+package main;
+
+/**
+ * A GameState stores all the information about the current level,
+ * the ball position, the positions of each platform etc. It also
+ * provides utility methods for generating these positions at the
+ * start, and update methods which delegate to the update methods
+ * provided by the Items and Platforms themselves.
+ */
+public class GameState {
+
+    private final int windowWidth;
+    private final int windowHeight;
+    GameRandom random;
+    private Ball ball;
+    private final Platform platforms[];
+
+    private Item items[] = new Item[3];
+
+    // Platforms and items that have scrolled off, kept for reuse so that
+    // replacing them doesn't allocate. Indexed by kind (or item type), then
+    // by the slot they were last used in.
+    private final Platform[][] platformPool;
+    private final Item[][] itemPool = new Item[Item.TYPES + 1][items.length];
+
+    // The platforms sorted by height, and the slots of those the ball could
+    // hit this tick, worked out from it before the platforms are updated.
+    private final PlatformIndex platformIndex;
+    private final int[] nearBall;
+    private int nearBallCount = 0;
+
+    private static final int PLATFORM_WIDTH = 140;
+    private static final int PLATFORM_HEIGHT = 20;
+    static final int PLATFORMS = 15;
+    int score;
+    int oppscore = 0;
+    public int tick = 0;
+    public int lastInputSeq = 0;
+    public int lastInputTick = 0;
+    // How many platforms and items have spawned, which keys the next spawn's numbers.
+    int platformSpawns = 0;
+    int itemSpawns = 0;
+    public final GameEvents events = new GameEvents();
+
+    public GameState(int width, int height) {
+        this(width, height, PLATFORMS);
+    }
+
+    /**
+     * @param platformCount How many platform slots to have. Games always have
+     *                      PLATFORMS; benchmarks try other numbers, up to
+     *                      GameStateCodec.MAX_PLATFORMS.
+     */
+    GameState(int width, int height, int platformCount) {
+        if (platformCount < 1 || platformCount > GameStateCodec.MAX_PLATFORMS) {
+            throw new IllegalArgumentException("A game can have between 1 and " + GameStateCodec.MAX_PLATFORMS
+                    + " platforms, not " + platformCount);
+        }
+        this.windowWidth = width;
+        this.windowHeight = height;
+        ball = new Ball(windowWidth / 2, 200);
+        platforms = new Platform[platformCount];
+        platformPool = new Platform[GameStateCodec.PLATFORM_JUMP_ONCE + 1][platformCount];
+        platformIndex = new PlatformIndex(platforms);
+        nearBall = new int[platformCount];
+    }
+
+    public void setSeed(int seed) {
+        this.random = new GameRandom(seed);
+        platformSpawns = 0;
+        itemSpawns = 0;
+    }
+
+
+    int getWindowWidth() {
+        return windowWidth;
+    }
+
+    public int getWindowHeight() {
+        return windowHeight;
+    }
+
+    /**
+     * Populates the list of platforms in this game state with a set
+     * of randomly generated platforms. They should be spaced evenly
+     * in the Y direction, have a random position in the X direction,
+     * and be of a uniform width and height.
+     */
+    public void generatePlatforms() {
+
+        platforms[0] = new NormalPlatform(0, 400, 800, PLATFORM_HEIGHT);
+
+        for (int i = 1; i < platforms.length; i++) {
+            // Todo: understand and refactor these "magic numbers".
+            random.spawn(GameRandom.PLATFORMS, platformSpawns++);
+
+            if (i % 2 != 0) {
+                int xPosition = random.nextInt(windowWidth - 2*PLATFORM_WIDTH);
+                int yPosition = 400 - 100 * i ;
+
+                platforms[i] = reusePlatform(i, GameStateCodec.PLATFORM_NORMAL, xPosition, yPosition);
+            } else {
+                switch (random.nextInt(3)) {
+                    case 0:
+                        int x2Position = PLATFORM_WIDTH/2 + 200 + random.nextInt(windowWidth - 2*PLATFORM_WIDTH);
+                        int y2Position = 400 - 100 * i;
+                        platforms[i] = reuseMovingPlatform(i, x2Position, y2Position, x2Position - 200, x2Position + 200);
+                        break;
+                    case 1:
+                        int x3Position = random.nextInt((int) (windowWidth - 100 - 2*PLATFORM_WIDTH));
+                        int y3Position = 400 - 100 * i;
+                        platforms[i] = reusePlatform(i, GameStateCodec.PLATFORM_TRAP, x3Position, y3Position);
+                        break;
+                    case 2:
+                        int xPosition = random.nextInt(windowWidth - 100 - 2*PLATFORM_WIDTH);
+                        int yPosition = 400 - 100 * i;
+                        platforms[i] = reusePlatform(i, GameStateCodec.PLATFORM_JUMP_ONCE, xPosition, yPosition);
+                        break;
+                }
+            }
+        }
+        fillPlatformPool();
+    }
+
+    /**
+     * Update the powerup items in the current game state
+     * If item is offscreen, create a random new one!
+     */
+    private void updateItems() {
+        if(gameOver()) return;
+
+        for (int i = 0; i < items.length; i++) {
+                if (items[i].getY() >= windowHeight) {
+                    //items[i] = null;
+                    int y = (int)this.getHighestItem();
+                    random.spawn(GameRandom.ITEMS, itemSpawns++);
+
+                    switch (random.nextInt(5)) {
+                        case 0:
+                            items[i] = reuseItem(i, 1, -1000 + y - random.nextInt(500));
+                            break;
+                        case 1:
+                            items[i] = reuseItem(i, 2, - 1000 + y - random.nextInt(500));
+                            break;
+                        case 2:
+                            items[i] = reuseItem(i, 3, - 1000 + y - random.nextInt(500));
+                            break;
+                        case 3:
+                            items[i] = reuseItem(i, 4, -1000 + y - random.nextInt(500));
+                            break;
+                        case 4:
+                            items[i] = reuseItem(i, 5, -1000 + y - random.nextInt(500));
+                            break;
+                    }
+                }
+            }
+    }
+
+    /**
+     * Update the platforms in the current game state.
+     * If platform is offscreen, create a random new one!
+     */
+    private void updatePlatforms() {
+        if(gameOver()) return;
+
+        double yPosition;
+        double xPosition;
+//        for(int i = 0; i<platforms.length; i++){
+//            System.out.print(platforms[i].getY() + " ");
+//        }
+        for (int i = 0; i < platforms.length; i++) {
+            if(platforms[i].getY() >= windowHeight) {
+                if(i-1<0) {
+                    yPosition = (platforms[platforms.length-1]).getY() - 100;
+
+                }
+                else yPosition = platforms[i-1].getY() - 100;
+                //System.out.println(yPosition);
+                random.spawn(GameRandom.PLATFORMS, platformSpawns++);
+                if (i % 2 != 0) {
+
+                    xPosition = random.nextInt(windowWidth - 2*PLATFORM_WIDTH);
+                    platforms[i] = reusePlatform(i, GameStateCodec.PLATFORM_NORMAL, xPosition, yPosition);
+                } else {
+                    switch (random.nextInt(10)) {
+                        case 1:case 2:case 3:case 4:
+                            xPosition = Math.max(Math.min(random.nextInt(windowWidth - 2*PLATFORM_WIDTH), windowWidth - 400 - PLATFORM_WIDTH), 400 + PLATFORM_WIDTH);
+                            platforms[i] = reuseMovingPlatform(i, xPosition, yPosition, (int) xPosition - 200, (int) xPosition + 200);
+                            break;
+                        case 6:
+                            xPosition = random.nextInt(windowWidth - 2*PLATFORM_WIDTH);
+                            platforms[i] = reusePlatform(i, GameStateCodec.PLATFORM_TRAP, xPosition, yPosition);
+                            break;
+                        case 5:case 7:case 8:
+                            xPosition = random.nextInt(windowWidth - 2*PLATFORM_WIDTH);
+                            platforms[i] = reusePlatform(i, GameStateCodec.PLATFORM_JUMP_ONCE, xPosition, yPosition);
+                            break;
+                    }
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Create a platform of every kind for every slot up front, so the game
+     * never has to allocate one once it's running.
+     */
+    private void fillPlatformPool() {
+        for (int slot = 0; slot < platforms.length; slot++) {
+            for (byte kind = GameStateCodec.PLATFORM_NORMAL; kind <= GameStateCodec.PLATFORM_JUMP_ONCE; kind++) {
+                if (platformPool[kind][slot] != null) continue;
+                switch (kind) {
+                    case GameStateCodec.PLATFORM_NORMAL: platformPool[kind][slot] = new NormalPlatform(0, 0, PLATFORM_WIDTH, PLATFORM_HEIGHT); break;
+                    case GameStateCodec.PLATFORM_MOVING: platformPool[kind][slot] = new MovingHorizontallyPlatform(0, 0, PLATFORM_WIDTH, PLATFORM_HEIGHT, 0, 0); break;
+                    case GameStateCodec.PLATFORM_TRAP: platformPool[kind][slot] = new TrapPlatform(0, 0, PLATFORM_WIDTH, PLATFORM_HEIGHT); break;
+                    case GameStateCodec.PLATFORM_JUMP_ONCE: platformPool[kind][slot] = new JumpOncePlatform(0, 0, PLATFORM_WIDTH, PLATFORM_HEIGHT); break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Create an item of every type for every slot up front, as for platforms.
+     */
+    private void fillItemPool() {
+        for (int slot = 0; slot < items.length; slot++) {
+            for (int type = 1; type <= Item.TYPES; type++) {
+                if (itemPool[type][slot] == null) itemPool[type][slot] = Item.create(type, 0, 0);
+            }
+        }
+    }
+
+    /**
+     * Get a platform of the given kind for a slot, reusing the one last used
+     * in that slot if there is one.
+     * @param slot The index in platforms it's for.
+     * @param kind One of the GameStateCodec platform kinds, other than moving.
+     */
+    private Platform reusePlatform(int slot, byte kind, double x, double y) {
+        Platform platform = pooledPlatform(slot, kind);
+        if (platform != null) {
+            platform.reset(x, y, PLATFORM_WIDTH, PLATFORM_HEIGHT);
+            return platform;
+        }
+        switch (kind) {
+            case GameStateCodec.PLATFORM_TRAP: platform = new TrapPlatform(x, y, PLATFORM_WIDTH, PLATFORM_HEIGHT); break;
+            case GameStateCodec.PLATFORM_JUMP_ONCE: platform = new JumpOncePlatform(x, y, PLATFORM_WIDTH, PLATFORM_HEIGHT); break;
+            default: platform = new NormalPlatform(x, y, PLATFORM_WIDTH, PLATFORM_HEIGHT); break;
+        }
+        return platformPool[kind][slot] = platform;
+    }
+
+    private Platform reuseMovingPlatform(int slot, double x, double y, int x1, int x2) {
+        MovingHorizontallyPlatform platform = (MovingHorizontallyPlatform) pooledPlatform(slot, GameStateCodec.PLATFORM_MOVING);
+        if (platform == null) {
+            platform = new MovingHorizontallyPlatform(x, y, PLATFORM_WIDTH, PLATFORM_HEIGHT, x1, x2);
+            return platformPool[GameStateCodec.PLATFORM_MOVING][slot] = platform;
+        }
+        platform.reset(x, y, PLATFORM_WIDTH, PLATFORM_HEIGHT, x1, x2);
+        return platform;
+    }
+
+    /**
+     * The platform of a kind that's free to reuse in a slot, if any. The one
+     * in the slot now (which may have come from a snapshot rather than the
+     * pool) is going, so it's pooled first.
+     */
+    private Platform pooledPlatform(int slot, byte kind) {
+        Platform current = platforms[slot];
+        if (current != null) platformPool[GameStateCodec.kindOf(current)][slot] = current;
+        return platformPool[kind][slot];
+    }
+
+    /**
+     * Get a platform of the given kind for a slot to read a saved state into,
+     * reusing the one last used in that slot if there is one. Unlike
+     * reusePlatform, every field is left for the caller to set.
+     * @param kind One of the GameStateCodec platform kinds, other than none.
+     */
+    Platform restorablePlatform(int slot, byte kind) {
+        Platform platform = pooledPlatform(slot, kind);
+        if (platform != null) return platform;
+        switch (kind) {
+            case GameStateCodec.PLATFORM_NORMAL: platform = new NormalPlatform(0, 0, PLATFORM_WIDTH, PLATFORM_HEIGHT); break;
+            case GameStateCodec.PLATFORM_MOVING: platform = new MovingHorizontallyPlatform(0, 0, PLATFORM_WIDTH, PLATFORM_HEIGHT, 0, 0); break;
+            case GameStateCodec.PLATFORM_TRAP: platform = new TrapPlatform(0, 0, PLATFORM_WIDTH, PLATFORM_HEIGHT); break;
+            case GameStateCodec.PLATFORM_JUMP_ONCE: platform = new JumpOncePlatform(0, 0, PLATFORM_WIDTH, PLATFORM_HEIGHT); break;
+            default: platform = new Platform(0, 0, PLATFORM_WIDTH, PLATFORM_HEIGHT); break;
+        }
+        return platformPool[kind][slot] = platform;
+    }
+
+    /**
+     * Get an item of the given type for a slot to read a saved state into,
+     * as restorablePlatform does for platforms.
+     * @param type The item type, 1 to Item.TYPES.
+     */
+    Item restorableItem(int slot, int type) {
+        Item current = items[slot];
+        if (current != null) itemPool[current.getType()][slot] = current;
+
+        Item item = itemPool[type][slot];
+        if (item == null) item = itemPool[type][slot] = Item.create(type, 0, 0);
+        return item;
+    }
+
+    /**
+     * Get an item of the given type for a slot, reusing the one last used in
+     * that slot if there is one. Its x position is picked at random.
+     * @param slot The index in items it's for.
+     * @param type The item type, as in Item.getType.
+     */
+    private Item reuseItem(int slot, int type, int y) {
+        int x = random.nextInt(600) + 100;
+        Item current = items[slot];
+        if (current != null) itemPool[current.getType()][slot] = current;
+
+        Item item = itemPool[type][slot];
+        if (item == null) return itemPool[type][slot] = Item.create(type, x, y);
+        item.reset(x, y);
+        return item;
+    }
+
+    public void updatePhysics(double timeStep) {
+        if(gameOver()) return;
+
+        tick++;
+        updateItems();
+    	updatePlatforms();
+    	ball.update(this, timeStep);
+        findPlatformsNearBall(timeStep);
+        for (int i = 0; i < platforms.length; i++) {
+            if (platforms[i] != null) platforms[i].update(this, timeStep, isNearBall(i));
+        }
+        for (Item item : items) {
+            if (item != null) item.update(this, timeStep);
+        }
+    }
+
+    /**
+     * Work out which platforms the ball could land on this tick: those whose
+     * top is between the bottom of the ball now and where it'll be after
+     * falling for the tick. Only those check for a collision; the rest couldn't
+     * pass the check anyway. A bounce part way through the platforms sends the
+     * ball up, after which nothing else can collide, so this stays right for
+     * the whole tick.
+     */
+    private void findPlatformsNearBall(double timeStep) {
+        nearBallCount = 0;
+        if (ball.getDy() <= 0) return;
+
+        // The same deltaTime and fall the platforms' collision checks work out.
+        double deltaTime = timeStep * Constants.TIME_STEP_COEFFICIENT;
+        double ballBottom = ball.getY() + ball.getRadius();
+        double reach = ball.bottomAfter(deltaTime);
+        PlatformIndex index = getPlatformIndex();
+        for (int rank = index.rankBelow(ballBottom); rank < index.size(); rank++) {
+            Platform platform = index.get(rank);
+            if (platform == null || platform.y > reach) break;
+            nearBall[nearBallCount++] = index.slot(rank);
+        }
+    }
+
+    private boolean isNearBall(int slot) {
+        for (int i = 0; i < nearBallCount; i++) {
+            if (nearBall[i] == slot) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Populates the list of items in this main.GameState with a set of
+     * power-ups. Currently, it's just using the GravUp power-up.
+     */
+    public void generateItems() {
+        if(gameOver()) return;
+
+        for (int i = 0; i < items.length; i++) {
+            random.spawn(GameRandom.ITEMS, itemSpawns++);
+            switch (random.nextInt(5)) {
+                case 0:
+                    items[i] = reuseItem(i, 1, - i * 500 + random.nextInt(500));
+                    break;
+                case 1:
+                    items[i] = reuseItem(i, 2, - i * 500 + random.nextInt(500));
+                    break;
+                case 2:
+                    items[i] = reuseItem(i, 3, -i * 500 + random.nextInt(500));
+                    break;
+                case 3:
+                    items[i] = reuseItem(i, 4, -i * 500 + random.nextInt(500));
+                    break;
+                case 4:
+                    items[i] = reuseItem(i, 5, -i * 500 + random.nextInt(500));
+                    break;
+            }
+        }
+        fillItemPool();
+    }
+
+
+    /**
+     * Retrieve each powerup item currently on-screen.
+     */
+    public Item[] getItems() {
+        return items;
+    }
+
+
+    /**
+     * What's happened in this game since the events were last drained.
+     */
+    public GameEvents getEvents() {
+        return events;
+    }
+
+    /**
+     * Retrieve the ball that's currently on-screen.
+     */
+    public Ball getBall() {
+        return ball;
+    }
+
+
+    /**
+     * Retrieve each platform currently on-screen.
+     */
+    public Platform[] getBasicPlatforms() {
+        return platforms;
+    }
+
+    /**
+     * Retrieve the platforms sorted by height, brought up to date with any
+     * that have moved or been replaced since it was last asked for.
+     */
+    public PlatformIndex getPlatformIndex() {
+        platformIndex.update();
+        return platformIndex;
+    }
+    
+
+
+
+    /**
+     * Returns the score of the player
+     */
+    public int getScore() {
+        return score;
+    }
+
+    public boolean gameOver(){
+    	return ball.gameOver();
+    }
+
+    public void handleInput(String move) {
+        if(gameOver()) return;
+
+        switch(move) {
+            case "a":
+                getBall().moveLeft();
+                break;
+            case "d":
+                getBall().moveRight();
+                break;
+            case "Space":
+                getBall().doubleJump();
+                break;
+            case "Shift":
+                this.makeClosestPlatformUnusable();
+                break;
+            default:
+                System.err.println("[WARN] GameState.handleInput : Bad move => " + move);
+        }
+    }
+
+    /**
+     * Remember that the client's input with this sequence number has just been
+     * applied, and on which tick, so the client can tell which of the inputs it
+     * predicted locally this state already includes.
+     * @param seq The input's sequence number, or 0 if it didn't have one.
+     */
+    void recordInput(int seq) {
+        if (seq <= lastInputSeq) return;
+        lastInputSeq = seq;
+        lastInputTick = tick;
+    }
+
+    /**
+     * Returns the y position of the highest item
+     */
+    public double getHighestItem(){
+        if(gameOver()) return 0;
+
+        double max = 0;
+        for(int i = 0; i<items.length; i++){
+            if(items[i].getY()<max)
+                max = items[i].getY();
+        }
+        return max;
+    }
+    /**
+     * Returns the y position of the highest platform
+     */
+    public double getHighestPlatform(){
+        if(gameOver()) return 0;
+
+        double max = 0;
+        for(int i = 0; i<platforms.length; i++){
+            if(platforms[i].getY()<max)
+                max = platforms[i].getY();
+        }
+        return max;
+    }
+    /**
+     * Returns the index of the closest platform to the ball
+     */
+    public int getClosestPlatform(){
+
+        if(gameOver()) return 0;
+
+        double ballXPosition = ball.getX();
+        double ballYPosition = ball.getY();
+
+        //Work outwards from the ball's height, nearest platform above or below
+        //first, and stop once they're further away vertically than the
+        //closest found so far. Distances are compared squared.
+        PlatformIndex index = getPlatformIndex();
+        int above = index.rankBelow(ballYPosition) - 1;
+        int below = above + 1;
+        double smallest = Double.POSITIVE_INFINITY;
+        int closest = 0;
+        while (above >= 0 || below < index.size()) {
+            int rank;
+            if (above < 0) rank = below++;
+            else if (below >= index.size() || index.get(below) == null) rank = above--;
+            else if (ballYPosition - index.get(above).getY() <= index.get(below).getY() - ballYPosition) rank = above--;
+            else rank = below++;
+
+            Platform platform = index.get(rank);
+            if (platform == null) break;
+            double dy = ballYPosition - platform.getY();
+            if (dy * dy > smallest) break;
+
+            double dx = ballXPosition - platform.getX();
+            double distance = dx * dx + dy * dy;
+            int slot = index.slot(rank);
+            //on a tie, the platform in the lower slot wins
+            if (distance < smallest || (distance == smallest && slot < closest)) {
+                smallest = distance;
+                closest = slot;
+            }
+        }
+        //return the index of the closest platform
+        return closest;
+    }
+
+    /**
+     * Make the closest platform to the ball unusable
+     */
+    public  void makeClosestPlatformUnusable(){
+        int index = getClosestPlatform();
+        platforms[index].setNoDraw(true);
+    }
+
+    public int getOppscore() { return this.oppscore; }
+
+    public void setOppscore(int score) {this.oppscore = Math.max(this.oppscore, score); }
+
+}
@@ -0,0 +1,276 @@
+package main;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * A GameStateCodec writes a GameState as a fixed layout of primitives and reads
+ * it back. Platforms and items are written as a one-byte type tag followed by
+ * their fields, so there's no class metadata on the wire at all. The layout is:
+ *
+ *   header   width(2) height(2) hasRandom(1) randomSeed(8) platformSpawns(4)
+ *            itemSpawns(4) score(4) oppscore(4) tick(4) lastInputSeq(4)
+ *            lastInputTick(4)
+ *   ball     x y dx dy gravity (8 each) countFlyPower(4) doubleJump(4) flags(1)
+ *   platform count(1, so at most MAX_PLATFORMS), then per platform: kind(1), and unless kind is NONE
+ *            x y (8 each) dy(4) width(2) height(2) flags(1)
+ *            plus left right dx (8 each) for MOVING platforms
+ *   item     count(1), then per item: type(1), and unless type is 0
+ *            x y dy (4 each) radius(1) flags(1)
+ */
+public class GameStateCodec {
+
+    /** Platform kind tags. */
+    static final byte PLATFORM_NONE = 0;
+    static final byte PLATFORM_BASIC = 1;
+    static final byte PLATFORM_NORMAL = 2;
+    static final byte PLATFORM_MOVING = 3;
+    static final byte PLATFORM_TRAP = 4;
+    static final byte PLATFORM_JUMP_ONCE = 5;
+
+    /** The most platforms a GameState can have, as the count is written in one byte. */
+    static final int MAX_PLATFORMS = 255;
+
+    private static final int HEADER_BYTES = 2 + 2 + 1 + 8 + 4 + 4 + 4 + 4 + 4 + 4 + 4;
+    private static final int BALL_BYTES = 5 * 8 + 4 + 4 + 1;
+    private static final int PLATFORM_BYTES = 8 + 8 + 4 + 2 + 2 + 1;
+    private static final int MOVING_PLATFORM_BYTES = 3 * 8;
+    private static final int ITEM_BYTES = 4 + 4 + 4 + 1 + 1;
+
+    private static final int BALL_HEIGHT_LOCKED = 1;
+    private static final int BALL_GAME_OVER = 2;
+    private static final int PLATFORM_IS_NULL = 1;
+    private static final int PLATFORM_NO_DRAW = 2;
+
+    /**
+     * Work out exactly how many bytes write will produce for a game state.
+     */
+    public static int encodedSize(GameState game) {
+        int size = HEADER_BYTES + BALL_BYTES + 1 + 1;
+        for (Platform platform : game.getBasicPlatforms()) {
+            size += 1;
+            if (platform == null) continue;
+            size += PLATFORM_BYTES;
+            if (platform instanceof MovingHorizontallyPlatform) size += MOVING_PLATFORM_BYTES;
+        }
+        for (Item item : game.getItems()) {
+            size += 1;
+            if (item != null) size += ITEM_BYTES;
+        }
+        return size;
+    }
+
+    /**
+     * Write a game state into a buffer, which must have at least
+     * encodedSize(game) bytes remaining.
+     */
+    public static void write(GameState game, ByteBuffer out) {
+        out.putShort((short) game.getWindowWidth());
+        out.putShort((short) game.getWindowHeight());
+        out.put((byte) (game.random != null ? 1 : 0));
+        out.putLong(game.random != null ? game.random.getSeed() : 0);
+        out.putInt(game.platformSpawns);
+        out.putInt(game.itemSpawns);
+        out.putInt(game.score);
+        out.putInt(game.oppscore);
+        out.putInt(game.tick);
+        out.putInt(game.lastInputSeq);
+        out.putInt(game.lastInputTick);
+
+        Ball ball = game.getBall();
+        out.putDouble(ball.getX());
+        out.putDouble(ball.getY());
+        out.putDouble(ball.getDx());
+        out.putDouble(ball.getDy());
+        out.putDouble(ball.getGravity());
+        out.putInt(ball.getCountFlyPower());
+        out.putInt(ball.doubleJump);
+        out.put((byte) ((ball.heightIsLocked() ? BALL_HEIGHT_LOCKED : 0) | (ball.gameOver() ? BALL_GAME_OVER : 0)));
+
+        Platform[] platforms = game.getBasicPlatforms();
+        out.put((byte) platforms.length);
+        for (Platform platform : platforms) {
+            byte kind = kindOf(platform);
+            out.put(kind);
+            if (kind == PLATFORM_NONE) continue;
+
+            out.putDouble(platform.x);
+            out.putDouble(platform.y);
+            out.putInt(platform.dy);
+            out.putShort((short) platform.width);
+            out.putShort((short) platform.height);
+            out.put((byte) ((platform.isNull ? PLATFORM_IS_NULL : 0) | (platform.noDraw ? PLATFORM_NO_DRAW : 0)));
+
+            if (kind == PLATFORM_MOVING) {
+                MovingHorizontallyPlatform moving = (MovingHorizontallyPlatform) platform;
+                out.putDouble(moving.getLeftBound());
+                out.putDouble(moving.getRightBound());
+                out.putDouble(moving.getDx());
+            }
+        }
+
+        Item[] items = game.getItems();
+        out.put((byte) items.length);
+        for (Item item : items) {
+            if (item == null) {
+                out.put((byte) 0);
+                continue;
+            }
+            out.put((byte) item.getType());
+            out.putInt(item.getX());
+            out.putInt(item.getY());
+            out.putInt(item.getDy());
+            out.put((byte) item.getRadius());
+            out.put((byte) (item.isNoDraw() ? 1 : 0));
+        }
+    }
+
+    /**
+     * Read a game state written by write.
+     * @throws IllegalArgumentException If the buffer doesn't hold a valid game state.
+     */
+    public static GameState read(ByteBuffer in) {
+        return read(in, null);
+    }
+
+    /**
+     * Read a game state written by write into an existing game of the same
+     * size, reusing its platforms and items rather than making new ones. Once
+     * its pools have a platform of each kind and an item of each type for
+     * every slot, this doesn't allocate, which is what the benchmarks need to
+     * put a game back the way it was between calls.
+     * @throws IllegalArgumentException If the buffer doesn't hold a valid game
+     *                                  state, or holds one of a different size.
+     */
+    public static void readInto(ByteBuffer in, GameState game) {
+        read(in, game);
+    }
+
+    private static GameState read(ByteBuffer in, GameState game) {
+        try {
+            int width = in.getShort();
+            int height = in.getShort();
+            boolean hasRandom = in.get() != 0;
+            long randomSeed = in.getLong();
+            int platformSpawns = in.getInt();
+            int itemSpawns = in.getInt();
+            int score = in.getInt();
+            int oppscore = in.getInt();
+            int tick = in.getInt();
+            int lastInputSeq = in.getInt();
+            int lastInputTick = in.getInt();
+
+            double x = in.getDouble();
+            double y = in.getDouble();
+            double dx = in.getDouble();
+            double dy = in.getDouble();
+            double gravity = in.getDouble();
+            int countFlyPower = in.getInt();
+            int doubleJump = in.getInt();
+            int flags = in.get();
+
+            // Games always have GameState.PLATFORMS slots, but benchmarks copy other sizes too.
+            int platformCount = in.get() & 0xFF;
+            if (platformCount == 0) throw new IllegalArgumentException("Bad platform count: " + platformCount);
+            if (game == null) {
+                game = new GameState(width, height, platformCount);
+            } else if (width != game.getWindowWidth() || height != game.getWindowHeight()
+                    || platformCount != game.getBasicPlatforms().length) {
+                throw new IllegalArgumentException("Game state is " + width + "x" + height + " with " + platformCount
+                        + " platforms, not the size of the game to read it into");
+            }
+            if (!hasRandom) game.random = null;
+            else if (game.random != null && game.random.getSeed() == randomSeed) game.random.restart();
+            else game.random = new GameRandom(randomSeed);
+            game.platformSpawns = platformSpawns;
+            game.itemSpawns = itemSpawns;
+            game.score = score;
+            game.oppscore = oppscore;
+            game.tick = tick;
+            game.lastInputSeq = lastInputSeq;
+            game.lastInputTick = lastInputTick;
+            game.events.clear();
+            game.getBall().restore(x, y, dx, dy, gravity, countFlyPower, doubleJump,
+                    (flags & BALL_HEIGHT_LOCKED) != 0, (flags & BALL_GAME_OVER) != 0);
+
+            Platform[] platforms = game.getBasicPlatforms();
+            for (int i = 0; i < platformCount; i++) platforms[i] = readPlatform(in, game, i);
+
+            Item[] items = game.getItems();
+            int itemCount = in.get() & 0xFF;
+            if (itemCount != items.length) throw new IllegalArgumentException("Bad item count: " + itemCount);
+            for (int i = 0; i < itemCount; i++) items[i] = readItem(in, game, i);
+
+            return game;
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated game state");
+        }
+    }
+
+    private static Platform readPlatform(ByteBuffer in, GameState game, int slot) {
+        byte kind = in.get();
+        if (kind == PLATFORM_NONE) return null;
+        if (kind < PLATFORM_BASIC || kind > PLATFORM_JUMP_ONCE) {
+            throw new IllegalArgumentException("Unknown platform kind: " + kind);
+        }
+
+        double x = in.getDouble();
+        double y = in.getDouble();
+        int dy = in.getInt();
+        int width = in.getShort();
+        int height = in.getShort();
+        int flags = in.get();
+
+        Platform platform = game.restorablePlatform(slot, kind);
+        if (kind == PLATFORM_MOVING) {
+            double left = in.getDouble();
+            double right = in.getDouble();
+            MovingHorizontallyPlatform moving = (MovingHorizontallyPlatform) platform;
+            moving.reset(x, y, width, height, (int) left, (int) right);
+            moving.setDx(in.getDouble());
+        } else {
+            platform.reset(x, y, width, height);
+        }
+        platform.dy = dy;
+        platform.isNull = (flags & PLATFORM_IS_NULL) != 0;
+        platform.noDraw = (flags & PLATFORM_NO_DRAW) != 0;
+        return platform;
+    }
+
+    /**
+     * Make a deep copy of a game state by writing it out and reading it back,
+     * so the copy has exactly what goes over the wire.
+     */
+    public static GameState copy(GameState game) {
+        ByteBuffer buffer = ByteBuffer.allocate(encodedSize(game));
+        write(game, buffer);
+        buffer.flip();
+        return read(buffer);
+    }
+
+    private static Item readItem(ByteBuffer in, GameState game, int slot) {
+        int type = in.get();
+        if (type == 0) return null;
+        if (type < 1 || type > Item.TYPES) throw new IllegalArgumentException("Unknown item type: " + type);
+
+        int x = in.getInt();
+        int y = in.getInt();
+        int dy = in.getInt();
+        int radius = in.get();
+        boolean noDraw = in.get() != 0;
+
+        Item item = game.restorableItem(slot, type);
+        item.reset(x, y);
+        item.restore(x, dy, radius, noDraw);
+        return item;
+    }
+
+    public static byte kindOf(Platform platform) {
+        if (platform == null) return PLATFORM_NONE;
+        if (platform instanceof MovingHorizontallyPlatform) return PLATFORM_MOVING;
+        if (platform instanceof TrapPlatform) return PLATFORM_TRAP;
+        if (platform instanceof JumpOncePlatform) return PLATFORM_JUMP_ONCE;
+        if (platform instanceof NormalPlatform) return PLATFORM_NORMAL;
+        return PLATFORM_BASIC;
+    }
+}
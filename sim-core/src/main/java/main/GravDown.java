@@ -0,0 +1,21 @@
+package main;
+
+
+
+public class GravDown extends main.Item{
+
+	GravDown(int x, int y, int type) {
+		super(x, y, type);
+	}
+
+	@Override
+	public void performAction(GameState game) {
+		Ball ball = game.getBall();
+		if(ball.getGravity() > Constants.GRAVITY_DOWN_THRESH) {
+		ball.setGravity(game, ball.getGravity() - Constants.GRAVITY_DOWN_STEP);
+			if(ball.getGravity() < Constants.GRAVITY_DOWN_THRESH){
+				ball.setGravity(game, Constants.GRAVITY_DOWN_THRESH);
+			}
+		}
+	}
+}
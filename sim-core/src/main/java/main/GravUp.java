@@ -0,0 +1,16 @@
+package main;
+
+
+public class GravUp extends main.Item{
+
+	public GravUp(int x, int y, int type) {
+		super(x, y, type);
+		// TODO Auto-generated constructor stub
+	}
+	
+	@Override
+	public void performAction(GameState game) {
+		Ball ball = game.getBall();
+		ball.setGravity(game, ball.getGravity() + Constants.GRAVITY_UP_STEP);
+	}
+}
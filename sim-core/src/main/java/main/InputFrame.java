@@ -0,0 +1,63 @@
+package main;
+
+/**
+ * An InputFrame is one server tick of a lockstep match, as seen by one of the
+ * two players: the moves both players made that tick and how many physics
+ * steps to run afterwards. A client that applies every frame in order to its
+ * copies of both games ends up exactly where the server's games are, so in
+ * lockstep these are sent instead of game states.
+ *
+ * Some frames also carry checksums of both games (see StateChecksum) as they
+ * were before the frame, which the client compares against its own to spot
+ * that it has fallen out of step.
+ */
+public final class InputFrame {
+
+    private final int tick;
+    private final int steps;
+    private final boolean mineFirst;
+    private final String[] myMoves;
+    private final String[] oppMoves;
+    private final boolean hasChecksums;
+    private final long myChecksum;
+    private final long oppChecksum;
+
+    /**
+     * @param tick The server's tick number for the frame.
+     * @param steps How many SIM_TICK_MS physics steps follow the moves.
+     * @param mineFirst Whether the recipient's moves were applied before the
+     *                  opponent's (they were if the recipient is player one).
+     * @param myMoves The recipient's moves, in order.
+     * @param oppMoves The opponent's moves, in order.
+     * @param hasChecksums Whether the checksums below mean anything.
+     * @param myChecksum The recipient's game before the frame.
+     * @param oppChecksum The opponent's game before the frame.
+     */
+    public InputFrame(int tick, int steps, boolean mineFirst, String[] myMoves, String[] oppMoves,
+                      boolean hasChecksums, long myChecksum, long oppChecksum) {
+        this.tick = tick;
+        this.steps = steps;
+        this.mineFirst = mineFirst;
+        this.myMoves = myMoves;
+        this.oppMoves = oppMoves;
+        this.hasChecksums = hasChecksums;
+        this.myChecksum = myChecksum;
+        this.oppChecksum = oppChecksum;
+    }
+
+    public int getTick() { return tick; }
+
+    public int getSteps() { return steps; }
+
+    public boolean isMineFirst() { return mineFirst; }
+
+    public String[] getMyMoves() { return myMoves; }
+
+    public String[] getOppMoves() { return oppMoves; }
+
+    public boolean hasChecksums() { return hasChecksums; }
+
+    public long getMyChecksum() { return myChecksum; }
+
+    public long getOppChecksum() { return oppChecksum; }
+}
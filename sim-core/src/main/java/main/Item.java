@@ -0,0 +1,163 @@
+package main;
+
+public class Item {
+
+    /** How many types of power-up there are; types are numbered from 1. */
+    static final int TYPES = 5;
+
+    private int x, y, dy, radius, type, highestPoint;
+    private boolean noDraw;
+
+    /*
+     * Constructor for item class(PowerUps)
+     * @param x the x position of the powerUp
+     * @param y the y position of the powerUp
+     * @param type, the type of the powerUp
+     */
+    Item(int x, int y, int type) {
+        this.type = type;
+        reset(x, y);
+    }
+
+    /**
+     * Put the item back the way it was constructed, at a new position, so a
+     * GameState can reuse it for the next item of the same type instead of
+     * allocating another.
+     */
+    void reset(int x, int y) {
+        this.x = x;
+        this.y = y;
+        radius = 10;
+        dy = Constants.ITEM_START_DY;
+        highestPoint = 200;
+        this.noDraw = false;
+    }
+
+    /*
+     * Return the type of powerUp
+     * 1 for GraveDown
+     * 2 for GraveUp
+     * 3 for FlyUp
+     * 4 for add points
+     * 5 for removing the opponent's closest platform
+     */
+    public int getType() {
+        return type;
+    }
+
+    /*
+     * Get method for Y
+     * Updates the position of the PowerUp
+     */
+    void update(GameState game, double timeStep) {
+        if (timeStep == 0) return;
+        double deltaTime = timeStep * Constants.TIME_STEP_COEFFICIENT;
+        Ball ball = game.getBall();
+
+        // If we've got the flying power-up, don't bother with collision.
+        if (ball.getCountFlyPower() > 0) {
+            y += Constants.FLY_POWERUP_SPEED * deltaTime;
+            game.score += Constants.FLY_POWERUP_SPEED * deltaTime;
+            return;
+        }
+
+
+        // Otherwise, check for collision with the ball.
+        checkForCollision(game);
+
+        // If the ball's height is locked, we need to compensate by moving
+        // the platform down at the speed the ball's meant to be rising.
+        if (ball.heightIsLocked()) {
+            y -= ball.getDy() * deltaTime;
+        }
+
+        // Update platform Y position.
+        y += dy * deltaTime;
+        game.score += dy * deltaTime;
+    }
+
+
+    /*
+     * Checks for collision between the ball and the powerUp
+     * @param ball
+     */
+    private void checkForCollision(GameState game) {
+        if (noDraw) return;
+
+        Ball ball = game.getBall();
+        double ballX = ball.getX();
+        double ballY = ball.getY();
+        int ballR = ball.getRadius();
+
+        double a = x - ballX;
+        double b = y - ballY;
+        int collide = radius + ballR;
+        //distance between object centers
+        double c = Math.sqrt((double) (a * a) + (double) (b * b));
+        if (c < collide) {
+            performAction(game);
+            noDraw = true;
+        }
+
+    }
+
+    /*
+     * Changes the behaviour of the ball depending on the powerUp
+     * @param ball
+     */
+    public void performAction(GameState game) {
+    }
+
+    public int getY() {
+        return y;
+    }
+
+    public int getX() {
+        return x;
+    }
+
+    int getDy() {
+        return dy;
+    }
+
+    int getRadius() {
+        return radius;
+    }
+
+    public boolean isNoDraw() {
+        return noDraw;
+    }
+
+    public void setPosition(int x, int y) {
+        this.x = x;
+        this.y = y;
+    }
+
+    /**
+     * Overwrite the item's dynamic state. Used when decoding a network snapshot.
+     */
+    void restore(int x, int dy, int radius, boolean noDraw) {
+        this.x = x;
+        this.dy = dy;
+        this.radius = radius;
+        this.noDraw = noDraw;
+    }
+
+    /**
+     * Create the power-up subclass matching one of the type numbers above.
+     * @param type The type of power-up, 1 to 5.
+     * @param x The x position of the power-up.
+     * @param y The y position of the power-up.
+     * @return The new power-up, or null if the type is unknown.
+     */
+    static Item create(int type, int x, int y) {
+        switch (type) {
+            case 1: return new GravDown(x, y, 1);
+            case 2: return new GravUp(x, y, 2);
+            case 3: return new FlyUpPower(x, y, 3);
+            case 4: return new PointsItem(x, y, 4);
+            case 5: return new MakeOpponentPlatformDissapearPowerUp(x, y, 5);
+            default: return null;
+        }
+    }
+}
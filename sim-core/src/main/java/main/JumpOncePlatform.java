@@ -1,9 +1,6 @@
 package main;
 
-import java.io.Serializable;
-
-
-class JumpOncePlatform extends Platform implements Serializable {
+class JumpOncePlatform extends Platform {
 
     /*
      *Constructor for platform object
@@ -22,7 +19,7 @@ class JumpOncePlatform extends Platform implements Serializable {
      *@param ball the ball class object
      */
     @Override
-    void update(GameState game, double timeStep) {
+    void update(GameState game, double timeStep, boolean nearBall) {
         if (timeStep < Constants.MIN_TIME_PER_FRAME) return;
         double deltaTime = timeStep * Constants.TIME_STEP_COEFFICIENT;
         Ball ball = game.getBall();
@@ -35,7 +32,7 @@ class JumpOncePlatform extends Platform implements Serializable {
         }
 
         // Otherwise, check for collision with the ball.
-        checkForCollision(ball, game, deltaTime);
+        if (nearBall) checkForCollision(ball, game, deltaTime);
 
         // If the ball's height is locked, we need to compensate by moving
         // the platform down at the speed the ball's meant to be rising.
@@ -67,7 +64,7 @@ class JumpOncePlatform extends Platform implements Serializable {
         // Check if the ball is above the platform *and* will be below
         // it after exactly one tick at the current framerate.
         if (ballBottom >= rectTop) return;
-        double newBallBottom = ballBottom + ball.getDy() * deltaTime;
+        double newBallBottom = ball.bottomAfter(deltaTime);
         if (newBallBottom <= rectTop) return;
 
         // Check the ball is aligned with the top of the platform.
@@ -75,20 +72,13 @@ class JumpOncePlatform extends Platform implements Serializable {
         if (ballX-radius > rectRight) return;
 
         // If the ball has collided with the top of the platform ~Tom
-        if (AudioEngine.isClient) AudioEngine.getInstance().playTrack(AudioEngine.BLOP); // Play the boing sound
+        game.events.emit(GameEvents.BOUNCE); // Play the boing sound
         ball.setY(rectTop - radius);
         ball.setDy(-ball.getMaxSpeed());
         noDraw = true; // the platform wont be drawn anymore and the collision wont happen
 
     }
 
-    /*
-     * Draws the platform
-     */
-    void paint(Window game, boolean opponent) {
-        super.paint(game, opponent);
-    }
-
     public void setDx(int dx){
         this.dy = dx;
     }
@@ -0,0 +1,14 @@
+package main;
+
+public class MakeOpponentPlatformDissapearPowerUp extends main.Item{
+
+    MakeOpponentPlatformDissapearPowerUp(int x, int y, int type) {
+        super(x, y, type);
+    }
+
+    @Override
+    public void performAction(GameState game) {
+        // The client tells the server when it sees this (see client.Main.playEvents).
+        game.events.emit(GameEvents.PLATFORM_DELETE);
+    }
+}
@@ -1,10 +1,6 @@
 package main;
 
-import java.io.Serializable;
-import java.util.Random;
-
-
-public class MovingHorizontallyPlatform extends Platform implements Serializable {
+public class MovingHorizontallyPlatform extends Platform {
 
     private double x1, x2;
     private int score = 0;
@@ -19,6 +15,14 @@ public class MovingHorizontallyPlatform extends Platform implements Serializable
      */
     MovingHorizontallyPlatform(double x, double y, int width, int height, int x1, int x2 ) {
         super(x, y, width, height);
+        reset(x, y, width, height, x1, x2);
+    }
+
+    /**
+     * Reset the platform for reuse, as in Platform.reset, with new bounds.
+     */
+    void reset(double x, double y, int width, int height, int x1, int x2) {
+        reset(x, y, width, height);
         this.x1 = x1;
         this.x2 = x2;
         dx = 15;
@@ -30,7 +34,7 @@ public class MovingHorizontallyPlatform extends Platform implements Serializable
      *@param ball the ball class object
      */
     @Override
-    void update(GameState game, double timeStep) {
+    void update(GameState game, double timeStep, boolean nearBall) {
         if (timeStep <= Constants.MIN_TIME_PER_FRAME) return;
         Ball ball = game.getBall();
         if (ball.gameOver()) return;
@@ -45,7 +49,7 @@ public class MovingHorizontallyPlatform extends Platform implements Serializable
         }
 
         // Otherwise, check for collision.
-        checkForCollision(ball, game, deltaTime);
+        if (nearBall) checkForCollision(ball, game, deltaTime);
 
         if (ball.heightIsLocked()) {
             y -= ball.getDy() * deltaTime;
@@ -61,4 +65,10 @@ public class MovingHorizontallyPlatform extends Platform implements Serializable
     }
 
     public double getDx() { return dx; }
+
+    void setDx(double dx) { this.dx = dx; }
+
+    double getLeftBound() { return x1; }
+
+    double getRightBound() { return x2; }
 }
\ No newline at end of file
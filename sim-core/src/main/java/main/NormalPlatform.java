@@ -8,7 +8,7 @@ public class NormalPlatform extends Platform {
     }
 
     @Override
-    void update(GameState game, double timeStep) {
+    void update(GameState game, double timeStep, boolean nearBall) {
 
         if (timeStep < Constants.MIN_TIME_PER_FRAME) return;
         double deltaTime = timeStep * Constants.TIME_STEP_COEFFICIENT;
@@ -22,7 +22,7 @@ public class NormalPlatform extends Platform {
         }
 
         // Otherwise, check for collision with the ball.
-        checkForCollision(ball, game, deltaTime);
+        if (nearBall) checkForCollision(ball, game, deltaTime);
 
         // If the ball's height is locked, we need to compensate by moving
         // the platform down at the speed the ball's meant to be rising.
@@ -36,9 +36,4 @@ public class NormalPlatform extends Platform {
 
         //System.out.println("Dy is" + dy/deltaTime);
     }
-
-    @Override
-    void paint(Window game, boolean opponent) {
-        super.paint(game, opponent);
-    }
 }
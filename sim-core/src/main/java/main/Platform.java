@@ -1,10 +1,6 @@
 package main;
 
-import java.io.Serializable;
-import static org.lwjgl.opengl.GL11.glColor4f;
-
-
-public class Platform implements Serializable {
+public class Platform {
 
     public int dy;
     public int width, height;
@@ -21,6 +17,15 @@ public class Platform implements Serializable {
      *@param height the height of the platform
      */
     public Platform(double x, double y, int width, int height) {
+        reset(x, y, width, height);
+    }
+
+    /**
+     * Put the platform back the way it was constructed, at a new position, so
+     * a GameState can reuse it for the next platform of the same kind instead
+     * of allocating another.
+     */
+    void reset(double x, double y, int width, int height) {
         this.x = x;
         this.y = y;
         this.width = width;
@@ -36,9 +41,17 @@ public class Platform implements Serializable {
      * @param game the game class object
      * @param timeStep The elapsed time in the last frame.
      */
-
-
     void update(GameState game, double timeStep) {
+        update(game, timeStep, true);
+    }
+
+    /**
+     * Updates the position of the platform, only checking for a collision
+     * with the ball if it's near enough to hit. GameState works that out for
+     * every platform at once with its PlatformIndex.
+     * @param nearBall Whether the ball could hit this platform this tick.
+     */
+    void update(GameState game, double timeStep, boolean nearBall) {
         //Every type of platforms has its own implementation of this method
     }
 
@@ -60,7 +73,7 @@ public class Platform implements Serializable {
             // Check if the ball is above the platform *and* will be below
             // it after exactly one tick at the current framerate.
             if (ballBottom >= rectTop) return;
-            double newBallBottom = ballBottom + ball.getDy() * deltaTime;
+            double newBallBottom = ball.bottomAfter(deltaTime);
             if (newBallBottom <= rectTop) return;
 
             // Check the ball is aligned with the top of the platform.
@@ -68,25 +81,11 @@ public class Platform implements Serializable {
             if (ballX-radius > rectRight) return;
 
             // If the ball has collided with the top of the platform ~Tom
-            if (AudioEngine.isClient) AudioEngine.getInstance().playTrack(AudioEngine.BLOP); // Play the boing sound
+            game.events.emit(GameEvents.BOUNCE); // Play the boing sound
             ball.setY(rectTop - radius);
             ball.setDy(-ball.getMaxSpeed());
 
     }
-    /*
-     * Draws the platform
-     */
-    void paint(Window game, boolean opponent) {
-        if(noDraw) return;
-        double scaledX = game.glScaleX(x, opponent, Screen.GAME);
-        double scaledY = game.glScaleY(y);
-        double widthGl = game.glScaleDistance(width);
-        double heightGl = game.glScaleDistance(height);
-
-        double[] verticesb = {scaledX, scaledY, 0.3f, scaledX, (scaledY - heightGl), 0.3f, (scaledX + widthGl), (scaledY - heightGl), 0.3f, (scaledX + widthGl), scaledY, 0.3f};
-        glColor4f(1, 0, 0, 0);
-        Rectangle.drawrectangle(verticesb, Menu.getRectangleModel(), true);
-    }
     public double getDy() { return this.dy; }
     public double getY() {
         return y;
@@ -0,0 +1,82 @@
+package main;
+
+/**
+ * A PlatformIndex keeps a GameState's platform slots sorted by height, top of
+ * the screen (smallest y) first, so questions like "which platforms could the
+ * ball hit" or "which platform is nearest" only need to look at the few
+ * platforms around the ball rather than at every one.
+ *
+ * The order hardly changes from tick to tick: platforms scroll together, and
+ * a recycled one jumps from the bottom to the top. So update() re-sorts with
+ * an insertion sort, which is about one pass over the slots. Empty slots sort
+ * last.
+ */
+public final class PlatformIndex {
+
+    private final Platform[] platforms;
+    private final int[] order;
+
+    PlatformIndex(Platform[] platforms) {
+        this.platforms = platforms;
+        this.order = new int[platforms.length];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+    }
+
+    /**
+     * Bring the order up to date after platforms have moved or been replaced.
+     */
+    void update() {
+        for (int i = 1; i < order.length; i++) {
+            int slot = order[i];
+            double y = yOf(slot);
+            int j = i - 1;
+            while (j >= 0 && yOf(order[j]) > y) {
+                order[j + 1] = order[j];
+                j--;
+            }
+            order[j + 1] = slot;
+        }
+    }
+
+    /**
+     * How many ranks (and slots) there are, empty or not.
+     */
+    public int size() {
+        return order.length;
+    }
+
+    /**
+     * The slot, in GameState.getBasicPlatforms, of the platform at a rank.
+     */
+    public int slot(int rank) {
+        return order[rank];
+    }
+
+    /**
+     * The platform at a rank, or null for an empty slot.
+     */
+    public Platform get(int rank) {
+        return platforms[order[rank]];
+    }
+
+    /**
+     * The first rank whose platform is lower on the screen than a height, i.e.
+     * whose y is greater than it.
+     * @param y The height to look below.
+     * @return The rank, or size() if every platform is above y.
+     */
+    public int rankBelow(double y) {
+        int low = 0, high = order.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (yOf(order[mid]) > y) high = mid;
+            else low = mid + 1;
+        }
+        return low;
+    }
+
+    private double yOf(int slot) {
+        Platform platform = platforms[slot];
+        return platform == null ? Double.POSITIVE_INFINITY : platform.y;
+    }
+}
@@ -0,0 +1,16 @@
+package main;
+
+
+public class PointsItem extends Item{
+
+    public PointsItem(int x, int y, int type) {
+        super(x, y, type);
+        // TODO Auto-generated constructor stub
+    }
+
+    @Override
+    public void performAction(GameState game) {
+        game.score = game.score + Constants.POINT_ITEM_STEP;
+        game.events.emit(GameEvents.POINTS);
+    }
+}
@@ -0,0 +1,69 @@
+package main;
+
+import networking.Message;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A SnapshotDecoder is the client-side mirror of a SnapshotEncoder: it keeps
+ * the last few snapshots it has applied so that deltas against any of them can
+ * be rebuilt into full game states.
+ */
+public class SnapshotDecoder {
+
+    private final byte[][] history = new byte[Constants.SNAPSHOT_HISTORY][];
+    private final int[] historyLengths = new int[Constants.SNAPSHOT_HISTORY];
+    private final int[] historySeqs = new int[Constants.SNAPSHOT_HISTORY];
+    private int latestSeq = Message.NO_BASELINE;
+
+    public SnapshotDecoder() {
+        for (int i = 0; i < historySeqs.length; i++) historySeqs[i] = Message.NO_BASELINE;
+    }
+
+    /**
+     * Rebuild the game state carried by a snapshot message.
+     * @param m A message for which isSnapshot() is true.
+     * @return The game state, or null if the snapshot is stale or its baseline
+     *         is no longer available (the next keyframe will recover).
+     */
+    public GameState decode(Message m) {
+        int seq = m.getSnapshotSeq();
+        if (seq <= latestSeq) return null;
+
+        int slot = seq % history.length;
+        int baseline = m.getBaselineSeq();
+        int length;
+        try {
+            if (baseline == Message.NO_BASELINE) {
+                length = m.getSnapshotLength();
+                ensureCapacity(slot, length);
+                System.arraycopy(m.getSnapshotData(), 0, history[slot], 0, length);
+            } else {
+                int baselineSlot = baseline % history.length;
+                if (historySeqs[baselineSlot] != baseline || baselineSlot == slot) return null;
+                ensureCapacity(slot, SnapshotDelta.decodedLength(m.getSnapshotData(), 0, m.getSnapshotLength()));
+                length = SnapshotDelta.apply(history[baselineSlot], historyLengths[baselineSlot],
+                        m.getSnapshotData(), 0, m.getSnapshotLength(), history[slot]);
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("[WARN] SnapshotDecoder.decode : Dropping bad snapshot " + seq + ": " + e.getMessage());
+            return null;
+        }
+
+        historyLengths[slot] = length;
+        historySeqs[slot] = seq;
+        latestSeq = seq;
+        return GameStateCodec.read(ByteBuffer.wrap(history[slot], 0, length));
+    }
+
+    /**
+     * The newest snapshot applied so far, which is what the client should acknowledge.
+     */
+    public int getLatestSeq() {
+        return latestSeq;
+    }
+
+    private void ensureCapacity(int slot, int length) {
+        if (history[slot] == null || history[slot].length < length) history[slot] = new byte[length];
+    }
+}
@@ -0,0 +1,121 @@
+package main;
+
+/**
+ * Utility methods for diffing two encoded game states. Because GameStateCodec
+ * writes every field at a fixed place, a field that didn't change between two
+ * snapshots is a run of identical bytes, so a delta is just the list of byte
+ * runs that did change:
+ *
+ *   varint newLength, then repeatedly: varint skip, varint run, run bytes
+ *
+ * where skip is the number of bytes to copy across from the baseline and run
+ * is the number of bytes taken from the delta itself.
+ */
+class SnapshotDelta {
+
+    /** Unchanged gaps shorter than this are folded into the surrounding run. */
+    private static final int MIN_SKIP = 3;
+
+    /**
+     * The most bytes diff can produce for a snapshot of the given length.
+     */
+    static int maxDiffSize(int length) {
+        return 5 + 10 + length;
+    }
+
+    /**
+     * Write the changes between base and current into out.
+     * @return The number of bytes written to out.
+     */
+    static int diff(byte[] base, int baseLength, byte[] current, int currentLength, byte[] out) {
+        int o = writeVarInt(out, 0, currentLength);
+        int i = 0;
+        while (i < currentLength) {
+            int skipStart = i;
+            while (i < currentLength && i < baseLength && base[i] == current[i]) i++;
+            int skip = i - skipStart;
+            if (i == currentLength) break;
+
+            int runStart = i;
+            while (i < currentLength) {
+                if (i < baseLength && base[i] == current[i]) {
+                    int same = i;
+                    while (same < currentLength && same < baseLength && base[same] == current[same] && same - i < MIN_SKIP) same++;
+                    if (same - i >= MIN_SKIP || same == currentLength) break;
+                    i = same;
+                } else {
+                    i++;
+                }
+            }
+            int run = i - runStart;
+
+            o = writeVarInt(out, o, skip);
+            o = writeVarInt(out, o, run);
+            System.arraycopy(current, runStart, out, o, run);
+            o += run;
+        }
+        return o;
+    }
+
+    /**
+     * Read how long the snapshot rebuilt from a delta will be.
+     * @throws IllegalArgumentException If the delta is malformed.
+     */
+    static int decodedLength(byte[] delta, int deltaOffset, int deltaLength) {
+        return readVarInt(delta, new int[]{deltaOffset}, deltaOffset + deltaLength);
+    }
+
+    /**
+     * Rebuild a snapshot from its baseline and a delta produced by diff.
+     * @param out Where to write the rebuilt snapshot. Must be big enough.
+     * @return The length of the rebuilt snapshot.
+     * @throws IllegalArgumentException If the delta is malformed.
+     */
+    static int apply(byte[] base, int baseLength, byte[] delta, int deltaOffset, int deltaLength, byte[] out) {
+        int[] position = {deltaOffset};
+        int end = deltaOffset + deltaLength;
+        int length = readVarInt(delta, position, end);
+        if (length > out.length) throw new IllegalArgumentException("Snapshot too large: " + length);
+
+        int o = 0;
+        while (position[0] < end) {
+            int skip = readVarInt(delta, position, end);
+            int run = readVarInt(delta, position, end);
+            if ((skip > 0 && o + skip > baseLength) || o + skip + run > length || position[0] + run > end) {
+                throw new IllegalArgumentException("Malformed snapshot delta");
+            }
+            if (skip > 0) System.arraycopy(base, o, out, o, skip);
+            o += skip;
+            System.arraycopy(delta, position[0], out, o, run);
+            position[0] += run;
+            o += run;
+        }
+
+        // Whatever is left after the last run is unchanged.
+        if (o < length) {
+            if (length > baseLength) throw new IllegalArgumentException("Malformed snapshot delta");
+            System.arraycopy(base, o, out, o, length - o);
+        }
+        return length;
+    }
+
+    private static int writeVarInt(byte[] out, int o, int value) {
+        while ((value & ~0x7F) != 0) {
+            out[o++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out[o++] = (byte) value;
+        return o;
+    }
+
+    private static int readVarInt(byte[] in, int[] position, int end) {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            if (position[0] >= end) throw new IllegalArgumentException("Truncated snapshot delta");
+            byte b = in[position[0]++];
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IllegalArgumentException("Malformed varint in snapshot delta");
+    }
+}
@@ -0,0 +1,76 @@
+package main;
+
+import networking.Message;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A SnapshotEncoder turns one stream of game states (say, "player two's game,
+ * as sent to player one") into numbered snapshot messages. It remembers the
+ * last few snapshots it sent, and once the client has acknowledged one of them
+ * it sends only the bytes that changed since that baseline. Full keyframes go
+ * out when there's no usable baseline and every SNAPSHOT_KEYFRAME_INTERVAL
+ * snapshots regardless.
+ *
+ * encode is called from the Match's thread; acknowledge from the connection's.
+ */
+class SnapshotEncoder {
+
+    private final boolean isMyGame;
+    private final byte[][] history = new byte[Constants.SNAPSHOT_HISTORY][];
+    private final int[] historyLengths = new int[Constants.SNAPSHOT_HISTORY];
+    private final int[] historySeqs = new int[Constants.SNAPSHOT_HISTORY];
+    private byte[] deltaBuffer = new byte[0];
+    private int nextSeq = 0;
+    private int lastKeyframeSeq = Message.NO_BASELINE;
+    private volatile int ackedSeq = Message.NO_BASELINE;
+
+    /**
+     * @param isMyGame Whether this stream carries the recipient's own game.
+     */
+    SnapshotEncoder(boolean isMyGame) {
+        this.isMyGame = isMyGame;
+        for (int i = 0; i < historySeqs.length; i++) historySeqs[i] = Message.NO_BASELINE;
+    }
+
+    /**
+     * Encode the next snapshot in this stream. The returned message points at
+     * the encoder's own buffers, so it has to be sent before encode is called again.
+     * @param game The authoritative game state to send.
+     * @return A keyframe or delta snapshot message.
+     */
+    Message encode(GameState game) {
+        int seq = nextSeq++;
+        int slot = seq % history.length;
+        int length = GameStateCodec.encodedSize(game);
+        if (history[slot] == null || history[slot].length < length) history[slot] = new byte[length];
+        GameStateCodec.write(game, ByteBuffer.wrap(history[slot]));
+        historyLengths[slot] = length;
+        historySeqs[slot] = seq;
+
+        int baseline = ackedSeq;
+        int baselineSlot = baseline == Message.NO_BASELINE ? 0 : baseline % history.length;
+        boolean keyframe = baseline == Message.NO_BASELINE
+                || seq - baseline >= history.length
+                || historySeqs[baselineSlot] != baseline
+                || seq - lastKeyframeSeq >= Constants.SNAPSHOT_KEYFRAME_INTERVAL;
+
+        if (keyframe) {
+            lastKeyframeSeq = seq;
+            return Message.snapshot(isMyGame, seq, Message.NO_BASELINE, history[slot], length);
+        }
+
+        int maxDelta = SnapshotDelta.maxDiffSize(length);
+        if (deltaBuffer.length < maxDelta) deltaBuffer = new byte[maxDelta];
+        int deltaLength = SnapshotDelta.diff(history[baselineSlot], historyLengths[baselineSlot], history[slot], length, deltaBuffer);
+        return Message.snapshot(isMyGame, seq, baseline, deltaBuffer, deltaLength);
+    }
+
+    /**
+     * Record that the client has applied a snapshot, making it a usable baseline.
+     * @param seq The sequence number the client acknowledged.
+     */
+    void acknowledge(int seq) {
+        if (seq > ackedSeq && seq < nextSeq) ackedSeq = seq;
+    }
+}
@@ -0,0 +1,73 @@
+package main;
+
+/**
+ * A StateChecksum boils down the parts of a GameState that the simulation
+ * depends on into a single long, so two sides that are meant to be running
+ * the same game can cheaply check that they still are. It covers the ball,
+ * every platform and item, the score and the spawn counts. It leaves out
+ * the tick, since a client's own game counts ticks on its own timeline (the
+ * tick is what checksums are matched up by instead), and things only one
+ * side keeps, like oppscore and which of the client's inputs the server has
+ * seen.
+ *
+ * Each field is folded in with an FNV-1a style step. Every step is a
+ * bijection of the running hash, so a change to any single field always
+ * changes the result.
+ */
+public final class StateChecksum {
+
+    private static final long OFFSET = 0xCBF29CE484222325L;
+    private static final long PRIME = 0x100000001B3L;
+
+    private StateChecksum() {}
+
+    public static long of(GameState game) {
+        long h = OFFSET;
+        h = mix(h, game.score);
+        h = mix(h, game.platformSpawns);
+        h = mix(h, game.itemSpawns);
+
+        Ball ball = game.getBall();
+        h = mix(h, ball.getX());
+        h = mix(h, ball.getY());
+        h = mix(h, ball.getDx());
+        h = mix(h, ball.getDy());
+        h = mix(h, ball.getGravity());
+        h = mix(h, ball.getCountFlyPower());
+        h = mix(h, ball.doubleJump);
+        h = mix(h, (ball.heightIsLocked() ? 1 : 0) | (ball.gameOver() ? 2 : 0));
+
+        for (Platform platform : game.getBasicPlatforms()) {
+            h = mix(h, GameStateCodec.kindOf(platform));
+            if (platform == null) continue;
+            h = mix(h, platform.x);
+            h = mix(h, platform.y);
+            h = mix(h, platform.dy);
+            h = mix(h, (platform.isNull ? 1 : 0) | (platform.noDraw ? 2 : 0));
+            if (platform instanceof MovingHorizontallyPlatform) {
+                h = mix(h, ((MovingHorizontallyPlatform) platform).getDx());
+            }
+        }
+
+        for (Item item : game.getItems()) {
+            if (item == null) {
+                h = mix(h, 0);
+                continue;
+            }
+            h = mix(h, item.getType());
+            h = mix(h, item.getX());
+            h = mix(h, item.getY());
+            h = mix(h, item.getDy());
+            h = mix(h, item.isNoDraw() ? 1 : 0);
+        }
+        return h;
+    }
+
+    private static long mix(long h, long value) {
+        return (h ^ value) * PRIME;
+    }
+
+    private static long mix(long h, double value) {
+        return mix(h, Double.doubleToLongBits(value));
+    }
+}
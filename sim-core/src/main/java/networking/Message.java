@@ -0,0 +1,186 @@
+package networking;
+
+import java.awt.geom.Point2D;
+import main.GameState;
+import main.InputFrame;
+import main.OpponentType;
+
+/**
+ * A networking.Message is a simple wrapper around the data that will be sent between the
+ * client and the server. For this simple demo it can be as simple as a String.
+ */
+public class Message {
+    /** The baseline sequence number of a snapshot that isn't a delta (a keyframe). */
+    public static final int NO_BASELINE = -1;
+
+    private OpponentType opponentType = null;
+    private String key = null;
+    private Point2D.Float coords = null;
+    private GameState gameState = null;
+    private Integer seed = null;
+    private Boolean isMyGame = null;
+    private Integer snapshotSeq = null;
+    private int baselineSeq = NO_BASELINE;
+    private byte[] snapshotData = null;
+    private int snapshotLength = 0;
+    private Integer ackSeq = null;
+    private Integer inputSeq = null;
+    private Long datagramToken = null;
+    private InputFrame inputFrame = null;
+    private Integer checksumTick = null;
+    private long checksum = 0;
+
+    public Message(String key) {
+        this.key = key;
+    }
+
+    public Message(OpponentType opponentType) {
+        this.opponentType = opponentType;
+    }
+
+    public Message(Point2D.Float coords) {
+        this.coords = coords;
+    }
+
+    public Message(GameState gameState, Boolean isMyGame) {
+        this.gameState = gameState;
+        this.isMyGame = isMyGame;
+    }
+
+    public Message(Integer seed) { this.seed = seed; }
+
+    public Message(Boolean isMyGame) { this.isMyGame = isMyGame; }
+
+    private Message() {}
+
+    /**
+     * A numbered snapshot of a game state, encoded by the server's snapshot encoder.
+     * The data array isn't copied, so it must not change until the message is sent.
+     * @param isMyGame Whether the snapshot is of the recipient's own game.
+     * @param seq The snapshot's sequence number within its stream.
+     * @param baselineSeq The snapshot the data is a delta against, or NO_BASELINE.
+     * @param data The encoded keyframe or delta.
+     * @param length How many bytes of data are used.
+     */
+    public static Message snapshot(boolean isMyGame, int seq, int baselineSeq, byte[] data, int length) {
+        Message m = new Message();
+        m.isMyGame = isMyGame;
+        m.snapshotSeq = seq;
+        m.baselineSeq = baselineSeq;
+        m.snapshotData = data;
+        m.snapshotLength = length;
+        return m;
+    }
+
+    /**
+     * Acknowledge that the client has applied a snapshot, so the server can use
+     * it as the baseline for later deltas.
+     * @param isMyGame Which of the two snapshot streams is being acknowledged.
+     * @param seq The newest snapshot the client has applied in that stream.
+     */
+    public static Message ack(boolean isMyGame, int seq) {
+        Message m = new Message();
+        m.isMyGame = isMyGame;
+        m.ackSeq = seq;
+        return m;
+    }
+
+    /**
+     * A move the client has already applied to its own game (predicted), tagged
+     * with a sequence number so the server can say which moves a state includes.
+     * @param seq The move's sequence number, counting up from 1 each game.
+     * @param key The move itself.
+     */
+    public static Message input(int seq, String key) {
+        Message m = new Message(key);
+        m.inputSeq = seq;
+        return m;
+    }
+
+    /**
+     * The token that ties a client's datagrams to its TCP connection. The
+     * server sends it over TCP, and the client sends it back over UDP until
+     * datagrams start arriving.
+     * @param token The token the server handed out for this connection.
+     */
+    public static Message datagramToken(long token) {
+        Message m = new Message();
+        m.datagramToken = token;
+        return m;
+    }
+
+    /**
+     * One tick of a lockstep match: both players' moves, sent instead of game
+     * states.
+     * @param frame The frame, from the recipient's point of view.
+     */
+    public static Message inputFrame(InputFrame frame) {
+        Message m = new Message();
+        m.inputFrame = frame;
+        return m;
+    }
+
+    /**
+     * The checksum of a player's own game at a tick. Clients report these for
+     * their game, and the server sends one back in place of a snapshot when the
+     * client's game is the same as its own.
+     * @param tick The tick, on the server's timeline.
+     * @param checksum The game's StateChecksum at that tick.
+     */
+    public static Message checksum(int tick, long checksum) {
+        Message m = new Message();
+        m.checksumTick = tick;
+        m.checksum = checksum;
+        return m;
+    }
+
+    public boolean isSnapshot() { return snapshotSeq != null; }
+
+    public int getSnapshotSeq() { return snapshotSeq; }
+
+    public int getBaselineSeq() { return baselineSeq; }
+
+    public byte[] getSnapshotData() { return snapshotData; }
+
+    public int getSnapshotLength() { return snapshotLength; }
+
+    public boolean isAck() { return ackSeq != null; }
+
+    public int getAckSeq() { return ackSeq; }
+
+    public boolean isInput() { return inputSeq != null; }
+
+    public int getInputSeq() { return inputSeq; }
+
+    public boolean isDatagramToken() { return datagramToken != null; }
+
+    public long getDatagramToken() { return datagramToken; }
+
+    public boolean isInputFrame() { return inputFrame != null; }
+
+    public InputFrame getInputFrame() { return inputFrame; }
+
+    public boolean isChecksum() { return checksumTick != null; }
+
+    public int getChecksumTick() { return checksumTick; }
+
+    public long getChecksum() { return checksum; }
+
+    public String getText() {
+        // Todo: this is a quick hack to stop the "demo" package complaining.
+        return this.key;
+    }
+
+    public boolean isMyGame() { return isMyGame != null && isMyGame; }
+
+    boolean hasIsMyGame() { return isMyGame != null; }
+
+    public Object getObject() {
+        if (coords != null) return coords;
+        if (key != null) return key;
+        if (gameState != null) return gameState;
+        if (opponentType != null) return opponentType;
+        if (seed != null) return seed;
+        return null;
+    }
+}
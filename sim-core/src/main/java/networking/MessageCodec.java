@@ -0,0 +1,341 @@
+package networking;
+
+import main.GameState;
+import main.GameStateCodec;
+import main.InputFrame;
+import main.OpponentType;
+
+import java.awt.geom.Point2D;
+import java.io.*;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A MessageCodec turns Messages into length-prefixed frames and back again.
+ * Every frame on the wire is a 4-byte big-endian length followed by that many
+ * bytes of encoded Message, which lets the non-blocking server pick whole
+ * messages out of its read buffers without blocking on a stream.
+ *
+ * The payload is a one-byte kind tag followed by that kind's fields, written
+ * as fixed-size primitives (game states are delegated to GameStateCodec).
+ * Nothing is written through Java serialization, so there are no class
+ * descriptors and no object graph to walk.
+ */
+public class MessageCodec {
+
+    /** The size of the length prefix in front of every frame. */
+    public static final int HEADER_BYTES = 4;
+
+    /** Frames larger than this are treated as a corrupt stream. */
+    public static final int MAX_FRAME_BYTES = 1 << 20;
+
+    /** Message kind tags. */
+    private static final byte KIND_EMPTY = 0;
+    private static final byte KIND_KEY = 1;
+    private static final byte KIND_OPPONENT_TYPE = 2;
+    private static final byte KIND_COORDS = 3;
+    private static final byte KIND_GAME_STATE = 4;
+    private static final byte KIND_SEED = 5;
+    private static final byte KIND_IS_MY_GAME = 6;
+    private static final byte KIND_SNAPSHOT = 7;
+    private static final byte KIND_ACK = 8;
+    private static final byte KIND_INPUT = 9;
+    private static final byte KIND_DATAGRAM_TOKEN = 10;
+    private static final byte KIND_INPUT_FRAME = 11;
+    private static final byte KIND_CHECKSUM = 12;
+
+    /** Input frame flags. */
+    private static final int FRAME_MINE_FIRST = 1;
+    private static final int FRAME_CHECKSUMS = 2;
+
+    /** The moves clients send all the time: decoded to these shared instances. */
+    private static final String[] KNOWN_KEYS = {"a", "d", "Space", "Shift", "PlatformDelete", "Resync"};
+
+    /**
+     * Work out exactly how many payload bytes a message will encode to.
+     * @param m The message to measure.
+     * @return The payload size, not including the frame header.
+     */
+    public static int encodedSize(Message m) {
+        if (m.isSnapshot()) return 1 + 1 + 4 + 4 + 4 + m.getSnapshotLength();
+        if (m.isAck()) return 1 + 1 + 4;
+        if (m.isDatagramToken()) return 1 + 8;
+        if (m.isInputFrame()) return 1 + inputFrameSize(m.getInputFrame());
+        if (m.isChecksum()) return 1 + 4 + 8;
+        Object payload = m.getObject();
+        if (m.isInput()) return 1 + 4 + 2 + ((String) payload).getBytes(StandardCharsets.UTF_8).length;
+        if (payload instanceof String) return 1 + 2 + ((String) payload).getBytes(StandardCharsets.UTF_8).length;
+        if (payload instanceof OpponentType) return 1 + 1;
+        if (payload instanceof Point2D.Float) return 1 + 4 + 4;
+        if (payload instanceof GameState) return 1 + 1 + GameStateCodec.encodedSize((GameState) payload);
+        if (payload instanceof Integer) return 1 + 4;
+        return 1 + 1;
+    }
+
+    /**
+     * Write a message's payload (without a length prefix) into a buffer, which
+     * must have at least encodedSize(m) bytes remaining.
+     * @param m The message to encode.
+     * @param out The buffer to write into.
+     */
+    public static void encode(Message m, ByteBuffer out) {
+        Object payload = m.getObject();
+        if (m.isSnapshot()) {
+            out.put(KIND_SNAPSHOT);
+            out.put((byte) (m.isMyGame() ? 1 : 0));
+            out.putInt(m.getSnapshotSeq());
+            out.putInt(m.getBaselineSeq());
+            out.putInt(m.getSnapshotLength());
+            out.put(m.getSnapshotData(), 0, m.getSnapshotLength());
+        } else if (m.isAck()) {
+            out.put(KIND_ACK);
+            out.put((byte) (m.isMyGame() ? 1 : 0));
+            out.putInt(m.getAckSeq());
+        } else if (m.isDatagramToken()) {
+            out.put(KIND_DATAGRAM_TOKEN);
+            out.putLong(m.getDatagramToken());
+        } else if (m.isChecksum()) {
+            out.put(KIND_CHECKSUM);
+            out.putInt(m.getChecksumTick());
+            out.putLong(m.getChecksum());
+        } else if (m.isInputFrame()) {
+            out.put(KIND_INPUT_FRAME);
+            writeInputFrame(m.getInputFrame(), out);
+        } else if (m.isInput()) {
+            byte[] text = ((String) payload).getBytes(StandardCharsets.UTF_8);
+            out.put(KIND_INPUT);
+            out.putInt(m.getInputSeq());
+            out.putShort((short) text.length);
+            out.put(text);
+        } else if (payload instanceof String) {
+            byte[] text = ((String) payload).getBytes(StandardCharsets.UTF_8);
+            out.put(KIND_KEY);
+            out.putShort((short) text.length);
+            out.put(text);
+        } else if (payload instanceof OpponentType) {
+            out.put(KIND_OPPONENT_TYPE);
+            out.put((byte) ((OpponentType) payload).ordinal());
+        } else if (payload instanceof Point2D.Float) {
+            out.put(KIND_COORDS);
+            out.putFloat(((Point2D.Float) payload).x);
+            out.putFloat(((Point2D.Float) payload).y);
+        } else if (payload instanceof GameState) {
+            out.put(KIND_GAME_STATE);
+            out.put((byte) (m.isMyGame() ? 1 : 0));
+            GameStateCodec.write((GameState) payload, out);
+        } else if (payload instanceof Integer) {
+            out.put(KIND_SEED);
+            out.putInt((Integer) payload);
+        } else {
+            out.put(m.hasIsMyGame() ? KIND_IS_MY_GAME : KIND_EMPTY);
+            out.put((byte) (m.isMyGame() ? 1 : 0));
+        }
+    }
+
+    /**
+     * Encode a single Message into its payload bytes (without a length prefix).
+     * @param m The message to encode.
+     * @return The encoded payload.
+     */
+    public static byte[] encode(Message m) {
+        ByteBuffer out = ByteBuffer.allocate(encodedSize(m));
+        encode(m, out);
+        return out.array();
+    }
+
+    /**
+     * Read a message's payload back out of a buffer.
+     * @param in The buffer positioned at the start of the payload.
+     * @return The decoded message.
+     * @throws InvalidObjectException If the payload isn't a valid message.
+     */
+    public static Message decode(ByteBuffer in) throws InvalidObjectException {
+        try {
+            byte kind = in.get();
+            switch (kind) {
+                case KIND_KEY:
+                    byte[] text = new byte[in.getShort()];
+                    in.get(text);
+                    return new Message(knownKey(new String(text, StandardCharsets.UTF_8)));
+                case KIND_INPUT:
+                    int inputSeq = in.getInt();
+                    byte[] move = new byte[in.getShort()];
+                    in.get(move);
+                    return Message.input(inputSeq, knownKey(new String(move, StandardCharsets.UTF_8)));
+                case KIND_OPPONENT_TYPE:
+                    return new Message(OpponentType.values()[in.get()]);
+                case KIND_COORDS:
+                    return new Message(new Point2D.Float(in.getFloat(), in.getFloat()));
+                case KIND_GAME_STATE:
+                    boolean isMyGame = in.get() != 0;
+                    return new Message(GameStateCodec.read(in), isMyGame);
+                case KIND_SEED:
+                    return new Message(in.getInt());
+                case KIND_IS_MY_GAME:
+                    return new Message(in.get() != 0);
+                case KIND_SNAPSHOT:
+                    boolean isMySnapshot = in.get() != 0;
+                    int seq = in.getInt();
+                    int baselineSeq = in.getInt();
+                    byte[] data = new byte[in.getInt()];
+                    in.get(data);
+                    return Message.snapshot(isMySnapshot, seq, baselineSeq, data, data.length);
+                case KIND_ACK:
+                    boolean isMyAck = in.get() != 0;
+                    return Message.ack(isMyAck, in.getInt());
+                case KIND_DATAGRAM_TOKEN:
+                    return Message.datagramToken(in.getLong());
+                case KIND_CHECKSUM:
+                    int checksumTick = in.getInt();
+                    return Message.checksum(checksumTick, in.getLong());
+                case KIND_INPUT_FRAME:
+                    return Message.inputFrame(readInputFrame(in));
+                case KIND_EMPTY:
+                    in.get();
+                    return new Message((Boolean) null);
+                default:
+                    throw new InvalidObjectException("Unknown message kind: " + kind);
+            }
+        } catch (BufferUnderflowException | IllegalArgumentException | IndexOutOfBoundsException | NegativeArraySizeException e) {
+            throw new InvalidObjectException("Invalid message payload: " + e);
+        }
+    }
+
+    /**
+     * An input frame is laid out as
+     *   tick(4) steps(1) flags(1) [myChecksum(8) oppChecksum(8)]
+     *   myCount(1) myMoves  oppCount(1) oppMoves
+     * with each move written as a length(2) and its UTF-8 bytes, and the
+     * checksums only there if the flags say so.
+     */
+    private static int inputFrameSize(InputFrame frame) {
+        int size = 4 + 1 + 1 + 1 + 1;
+        if (frame.hasChecksums()) size += 8 + 8;
+        for (String move : frame.getMyMoves()) size += 2 + move.getBytes(StandardCharsets.UTF_8).length;
+        for (String move : frame.getOppMoves()) size += 2 + move.getBytes(StandardCharsets.UTF_8).length;
+        return size;
+    }
+
+    private static void writeInputFrame(InputFrame frame, ByteBuffer out) {
+        out.putInt(frame.getTick());
+        out.put((byte) frame.getSteps());
+        out.put((byte) ((frame.isMineFirst() ? FRAME_MINE_FIRST : 0) | (frame.hasChecksums() ? FRAME_CHECKSUMS : 0)));
+        if (frame.hasChecksums()) {
+            out.putLong(frame.getMyChecksum());
+            out.putLong(frame.getOppChecksum());
+        }
+        writeMoves(frame.getMyMoves(), out);
+        writeMoves(frame.getOppMoves(), out);
+    }
+
+    private static InputFrame readInputFrame(ByteBuffer in) {
+        int tick = in.getInt();
+        int steps = in.get() & 0xFF;
+        int flags = in.get();
+        boolean hasChecksums = (flags & FRAME_CHECKSUMS) != 0;
+        long myChecksum = hasChecksums ? in.getLong() : 0;
+        long oppChecksum = hasChecksums ? in.getLong() : 0;
+        String[] myMoves = readMoves(in);
+        String[] oppMoves = readMoves(in);
+        return new InputFrame(tick, steps, (flags & FRAME_MINE_FIRST) != 0, myMoves, oppMoves,
+                hasChecksums, myChecksum, oppChecksum);
+    }
+
+    private static void writeMoves(String[] moves, ByteBuffer out) {
+        out.put((byte) moves.length);
+        for (String move : moves) {
+            byte[] text = move.getBytes(StandardCharsets.UTF_8);
+            out.putShort((short) text.length);
+            out.put(text);
+        }
+    }
+
+    private static String[] readMoves(ByteBuffer in) {
+        String[] moves = new String[in.get() & 0xFF];
+        for (int i = 0; i < moves.length; i++) {
+            byte[] text = new byte[in.getShort()];
+            in.get(text);
+            moves[i] = knownKey(new String(text, StandardCharsets.UTF_8));
+        }
+        return moves;
+    }
+
+    /**
+     * Decode a payload produced by encode back into a Message.
+     * @param data The buffer holding the payload.
+     * @param offset Where the payload starts in data.
+     * @param length How many bytes the payload takes up.
+     * @return The decoded message.
+     */
+    public static Message decode(byte[] data, int offset, int length) throws InvalidObjectException {
+        return decode(ByteBuffer.wrap(data, offset, length));
+    }
+
+    /**
+     * Encode a Message into a ready-to-write frame, length prefix included.
+     * @param m The message to encode.
+     * @return A buffer positioned at the start of the frame.
+     */
+    public static ByteBuffer encodeFrame(Message m) {
+        int length = encodedSize(m);
+        ByteBuffer frame = ByteBuffer.allocate(HEADER_BYTES + length);
+        frame.putInt(length);
+        encode(m, frame);
+        frame.flip();
+        return frame;
+    }
+
+    /**
+     * Try to pull one complete frame out of a buffer in read mode. If the
+     * buffer doesn't hold a whole frame yet, its position is left untouched
+     * and null is returned.
+     * @param buffer The buffer we've been reading into (already flipped).
+     * @return The decoded message, or null if the frame isn't complete yet.
+     */
+    public static Message decodeFrame(ByteBuffer buffer) throws IOException {
+        if (buffer.remaining() < HEADER_BYTES) return null;
+        int length = buffer.getInt(buffer.position());
+        if (length < 0 || length > MAX_FRAME_BYTES) throw new IOException("Bad frame length: " + length);
+        if (buffer.remaining() < HEADER_BYTES + length) return null;
+
+        int start = buffer.position() + HEADER_BYTES;
+        int end = start + length;
+        ByteBuffer payload = buffer.duplicate();
+        payload.position(start);
+        payload.limit(end);
+        buffer.position(end);
+        return decode(payload);
+    }
+
+    /**
+     * Write a Message as a frame onto a blocking stream.
+     * @param out The stream to write to. It's flushed afterwards.
+     * @param m The message to write.
+     */
+    public static void writeFrame(DataOutputStream out, Message m) throws IOException {
+        ByteBuffer frame = encodeFrame(m);
+        out.write(frame.array(), 0, frame.limit());
+        out.flush();
+    }
+
+    /**
+     * Block until a whole frame has arrived on a stream, then decode it.
+     * @param in The stream to read from.
+     * @return The decoded message.
+     */
+    public static Message readFrame(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > MAX_FRAME_BYTES) throw new IOException("Bad frame length: " + length);
+        byte[] payload = new byte[length];
+        in.readFully(payload);
+        return decode(payload, 0, length);
+    }
+
+    private static String knownKey(String key) {
+        for (String known : KNOWN_KEYS) {
+            if (known.equals(key)) return known;
+        }
+        return key;
+    }
+}
@@ -0,0 +1,134 @@
+package networking;
+
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketException;
+
+/**
+ * A NetworkClient exists to abstract away some setup code for creating a
+ * NetworkClientEngine and initializing it, then defaulting to NetworkUser
+ * for everything else.
+ *
+ * Once openDatagrams has been called, snapshot acks and numbered inputs go to
+ * the server over UDP instead, and whatever the server sends back over UDP is
+ * handled just like messages from the TCP connection. If the server stops
+ * answering over UDP they go back to TCP.
+ */
+abstract public class NetworkClient extends NetworkUser {
+    /** How long to wait for the server to answer over UDP before giving up on it. */
+    private static final long DATAGRAM_ANSWER_MS = 3000;
+    /**
+     * How long the server can send nothing over UDP before we stop sending to
+     * it that way. The server gives up on our datagrams after as long, and
+     * sends us a new token over TCP when it does.
+     */
+    private static final long DATAGRAM_QUIET_MS = 5000;
+
+    private final String host;
+    private final int port;
+    private UdpEndpoint datagrams;
+    private RedundantSender datagramSender;
+    private long datagramsOpenedAt;
+
+    public NetworkClient(String serverHost, int serverPort) {
+        this.host = serverHost;
+        this.port = serverPort;
+    }
+
+    /**
+     * Setup a NetworkClientEngine, initialize it, then assign it to the
+     * NetworkEngine of this particular NetworkUser.
+     * @return Whether we connected to the server.
+     */
+    public boolean initialize() {
+        closeDatagrams();
+        if (this.engine != null) {
+            System.out.println("[INFO] NetworkClient.initialize : stopping previous engine.");
+            try {
+                this.engine.stop();
+            } catch (InterruptedException ignored) {
+                System.out.println("[INFO] NetworkClient.initialize : caught InterruptedException from stopping network client.");
+            }
+        }
+
+        NetworkClientEngine engine = new NetworkClientEngine();
+        boolean connected = engine.initialize(host, port);
+        this.engine = engine;
+        return connected;
+    }
+
+    /**
+     * Start talking to the server over UDP as well, on the same port as the
+     * TCP connection. The token is sent with every datagram until the server
+     * answers, so it knows which connection we belong to.
+     * @param token The token the server sent us over TCP.
+     */
+    protected void openDatagrams(long token) {
+        closeDatagrams();
+        UdpEndpoint datagrams;
+        try {
+            datagrams = new UdpEndpoint(0);
+        } catch (SocketException e) {
+            System.err.println("[WARN] NetworkClient.openDatagrams : Couldn't open a UDP socket, staying on TCP: " + e);
+            return;
+        }
+
+        UdpPeer server = datagrams.peer(new InetSocketAddress(host, port));
+        NetworkEngine engine = this.engine;
+        datagrams.setReceiver((from, m) -> {
+            if (from == server) engine.enqueue(m);
+        });
+        Thread thread = new Thread(datagrams, "UdpEndpoint-client");
+        thread.setDaemon(true);
+        thread.start();
+
+        RedundantSender sender = new RedundantSender(datagrams, server);
+        sender.setHello(Message.datagramToken(token));
+        this.datagrams = datagrams;
+        this.datagramSender = sender;
+        this.datagramsOpenedAt = System.currentTimeMillis();
+        System.out.println("[INFO] NetworkClient.openDatagrams : Sending datagrams from port " + datagrams.getLocalPort());
+
+        try {
+            sender.send(null, false);
+        } catch (IOException e) {
+            System.err.println("[WARN] NetworkClient.openDatagrams : " + e);
+        }
+    }
+
+    @Override
+    public boolean sendMessage(Message m) {
+        RedundantSender sender = datagramSender;
+        if (sender == null || !(m.isAck() || m.isInput() || m.isChecksum())) return super.sendMessage(m);
+
+        // Until the server answers over UDP we can't be sure datagrams get
+        // through at all, so send over TCP too (the server ignores repeats).
+        UdpPeer server = sender.getPeer();
+        boolean answered = server.hasReceived();
+        if (!answered && System.currentTimeMillis() - datagramsOpenedAt > DATAGRAM_ANSWER_MS) {
+            System.err.println("[WARN] NetworkClient.sendMessage : No answer over UDP, staying on TCP.");
+            closeDatagrams();
+            return super.sendMessage(m);
+        }
+        if (answered && server.millisSinceReceive() > DATAGRAM_QUIET_MS) {
+            System.err.println("[WARN] NetworkClient.sendMessage : Nothing over UDP for a while, back to TCP.");
+            closeDatagrams();
+            return super.sendMessage(m);
+        }
+
+        try {
+            sender.send(m, m.isInput());
+            return answered || super.sendMessage(m);
+        } catch (IOException e) {
+            System.err.println("[WARN] NetworkClient.sendMessage : UDP send failed, using TCP: " + e);
+            return super.sendMessage(m);
+        }
+    }
+
+    private void closeDatagrams() {
+        if (datagrams != null) datagrams.close();
+        datagrams = null;
+        datagramSender = null;
+    }
+}
@@ -14,8 +14,9 @@ class NetworkClientEngine extends NetworkEngine implements Runnable {
      * Given a host and port, connect to a server and initialize the network engine.
      * @param host The server's hostname.
      * @param port The server's port.
+     * @return Whether we connected.
      */
-    void initialize(String host, int port) {
+    boolean initialize(String host, int port) {
         Socket socket;
 
         try {
@@ -23,9 +24,10 @@ class NetworkClientEngine extends NetworkEngine implements Runnable {
         } catch (IOException e) {
             System.err.println("Couldn't initialize socket (connection to server).");
             e.printStackTrace();
-            return;
+            return false;
         }
 
         super.initialize(socket);
+        return isRunning();
     }
 }
@@ -9,6 +9,7 @@ import java.util.Optional;
 import java.util.concurrent.BlockingDeque;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
 
 
 /**
@@ -17,9 +18,9 @@ import java.util.concurrent.LinkedBlockingDeque;
  */
 abstract class NetworkEngine implements Runnable {
 
-    private ObjectInputStream inputStream;
-    private ObjectOutputStream outputStream;
-    private boolean running;
+    private DataInputStream inputStream;
+    private DataOutputStream outputStream;
+    private volatile boolean running;
     private final BlockingDeque<Message> messages = new LinkedBlockingDeque<>();
     private Socket socket;
 
@@ -48,6 +49,14 @@ abstract class NetworkEngine implements Runnable {
         return Optional.of(m);
     }
 
+    /**
+     * Hand a message that arrived some other way (e.g. over UDP) to whoever
+     * reads this engine's messages.
+     */
+    void enqueue(Message m) {
+        messages.add(m);
+    }
+
     public Message waitForMessage() {
         try {
             return messages.take();
@@ -57,15 +66,28 @@ abstract class NetworkEngine implements Runnable {
         return null;
     }
 
+    /**
+     * Wait a while for the next message.
+     * @param timeoutMs How long to wait, in milliseconds.
+     * @return The message, or null if none came in time.
+     */
+    Message waitForMessage(long timeoutMs) {
+        try {
+            return messages.poll(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            System.err.println("[ERROR] NetworkEngine.waitForMessage : " + e);
+        }
+        return null;
+    }
+
     /**
      * Send a message to our output stream, and therefore our connected device.
      *
      * @param m The message to send.
      */
-    boolean sendMessage(Message m) {
+    synchronized boolean sendMessage(Message m) {
         try {
-            outputStream.writeObject(m);
-            outputStream.reset();
+            MessageCodec.writeFrame(outputStream, m);
         } catch (IOException e) {
             System.out.println("Failed to write message.");
             return false;
@@ -83,12 +105,12 @@ abstract class NetworkEngine implements Runnable {
             running = true;
             while (running) {
                 try {
-                    Message m = (Message) inputStream.readObject();
+                    Message m = MessageCodec.readFrame(inputStream);
                     messages.add(m);
                 } catch (EOFException e) {
                     System.out.println("[WARN] NetworkEngine.run : EOFException. Stopping...");
                     stop();
-                } catch (ClassNotFoundException e) {
+                } catch (InvalidObjectException e) {
                     System.err.println("[WARN] NetworkEngine.run : Invalid object. Continuing...");
                 } catch (IOException e) {
                     System.err.println("[WARN] NetworkEngine.run : IOException. Stopping...");
@@ -110,13 +132,16 @@ abstract class NetworkEngine implements Runnable {
     void initialize(Socket socket) {
         try {
             this.socket = socket;
-            outputStream = new ObjectOutputStream(socket.getOutputStream());
-            inputStream = new ObjectInputStream(socket.getInputStream());
+            socket.setTcpNoDelay(true);
+            outputStream = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            inputStream = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
         } catch (IOException e) {
             System.err.println("Couldn't get one of input or output stream for socket.");
             e.printStackTrace();
             return;
         }
+        // Running from here, so nobody sees the engine as stopped before its thread starts.
+        running = true;
         new Thread(this).start();
     }
 
@@ -33,4 +33,15 @@ abstract class NetworkUser implements MessageHandler {
     }
 
     protected Message waitForMessage() { return engine.waitForMessage(); }
+
+    /**
+     * @param timeoutMs How long to wait, in milliseconds.
+     * @return The next message, or null if none came in time.
+     */
+    protected Message waitForMessage(long timeoutMs) { return engine.waitForMessage(timeoutMs); }
+
+    /**
+     * Whether we're still connected, i.e. the engine hasn't stopped.
+     */
+    protected boolean isConnected() { return engine != null && engine.isRunning(); }
 }
@@ -0,0 +1,101 @@
+package networking;
+
+import java.io.IOException;
+
+/**
+ * A RedundantSender sends messages to one UdpPeer, repeating the ones that
+ * mustn't be lost (inputs) in every packet until a packet carrying them has
+ * been acked. Nothing is ever retransmitted on a timer: a lost input simply
+ * rides along with the next packet, so it costs a few bytes rather than a
+ * round trip. The receiver has to ignore copies it's already seen, e.g. by
+ * the input's sequence number.
+ */
+public class RedundantSender {
+
+    /** The most unacked messages we'll keep repeating; older ones are given up on. */
+    private static final int MAX_PENDING = 32;
+
+    private final UdpEndpoint endpoint;
+    private final UdpPeer peer;
+    private final Message[] pending = new Message[MAX_PENDING];
+    private final int[] firstPackets = new int[MAX_PENDING];
+    private final int[] lastPackets = new int[MAX_PENDING];
+    private int pendingCount = 0;
+    private Message hello;
+
+    public RedundantSender(UdpEndpoint endpoint, UdpPeer peer) {
+        this.endpoint = endpoint;
+        this.peer = peer;
+    }
+
+    /**
+     * Put a message at the front of every packet until the peer sends us
+     * anything, e.g. to introduce ourselves.
+     */
+    public synchronized void setHello(Message hello) {
+        this.hello = hello;
+    }
+
+    /**
+     * Send a message in a packet of its own, along with any hello and every
+     * repeated message that still hasn't been acked.
+     * @param m The message to send, or null to just send what's pending.
+     * @param repeat Whether to keep repeating m until it's acked.
+     */
+    public synchronized void send(Message m, boolean repeat) throws IOException {
+        dropAcked();
+        if (m != null && repeat) {
+            if (pendingCount == MAX_PENDING) remove(0);
+            pending[pendingCount] = m;
+            firstPackets[pendingCount] = -1;
+            pendingCount++;
+        }
+
+        boolean sendHello = hello != null && !peer.hasReceived();
+        Message[] packet = new Message[(sendHello ? 1 : 0) + pendingCount + (m != null && !repeat ? 1 : 0)];
+        int n = 0;
+        if (sendHello) packet[n++] = hello;
+        for (int i = 0; i < pendingCount; i++) packet[n++] = pending[i];
+        if (m != null && !repeat) packet[n] = m;
+
+        int seq = endpoint.send(peer, packet);
+        for (int i = 0; i < pendingCount; i++) {
+            if (firstPackets[i] < 0) firstPackets[i] = seq;
+            lastPackets[i] = seq;
+        }
+    }
+
+    /**
+     * How many repeated messages haven't been acked yet.
+     */
+    public synchronized int getPendingCount() {
+        return pendingCount;
+    }
+
+    public UdpPeer getPeer() {
+        return peer;
+    }
+
+    /**
+     * A pending message has been in every packet from the first one it went
+     * out in to the last, so it's through if any of those has been acked.
+     */
+    private void dropAcked() {
+        for (int i = pendingCount - 1; i >= 0; i--) {
+            if (firstPackets[i] < 0) continue;
+            for (int seq = lastPackets[i]; seq >= firstPackets[i]; seq--) {
+                if (peer.isAcked(seq)) {
+                    remove(i);
+                    break;
+                }
+            }
+        }
+    }
+
+    private void remove(int index) {
+        System.arraycopy(pending, index + 1, pending, index, pendingCount - index - 1);
+        System.arraycopy(firstPackets, index + 1, firstPackets, index, pendingCount - index - 1);
+        System.arraycopy(lastPackets, index + 1, lastPackets, index, pendingCount - index - 1);
+        pending[--pendingCount] = null;
+    }
+}
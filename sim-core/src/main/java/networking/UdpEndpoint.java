@@ -0,0 +1,209 @@
+package networking;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.net.*;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A UdpEndpoint sends and receives Messages as datagrams, for the traffic
+ * where only the newest copy matters (snapshots, their acks, and predicted
+ * inputs). A lost datagram never holds up the ones behind it the way a lost
+ * TCP segment does. Every packet is:
+ *
+ *   magic(2) seq(4) ack(4) ackBits(4) count(1), then per message: length(2) payload
+ *
+ * where seq numbers our packets to that peer, and ack/ackBits say which of the
+ * peer's packets we've received. Packets that arrive after a newer one are
+ * dropped. The ack state is still there for senders that need to know what got
+ * through (see UdpPeer.isAcked).
+ *
+ * For testing on loopback, simulate() makes the endpoint drop and delay its
+ * own outgoing packets.
+ */
+public class UdpEndpoint implements Runnable {
+
+    /** Handles messages arriving at an endpoint. Called on the endpoint's thread. */
+    public interface Receiver {
+        void receive(UdpPeer from, Message m);
+    }
+
+    /** Keep packets under a typical path MTU. */
+    public static final int MAX_PACKET_BYTES = 1200;
+
+    private static final short MAGIC = 0x4A42;
+    private static final int HEADER_BYTES = 2 + 4 + 4 + 4 + 1;
+
+    private final DatagramSocket socket;
+    private final ConcurrentHashMap<SocketAddress, UdpPeer> peers = new ConcurrentHashMap<>();
+    private final byte[] receiveBuffer = new byte[MAX_PACKET_BYTES];
+    private volatile Receiver receiver;
+    private volatile boolean running = true;
+
+    private volatile double lossRate = 0;
+    private volatile int latencyMs = 0;
+    private volatile int jitterMs = 0;
+    private ScheduledExecutorService delayer;
+    private final Random shimRandom = new Random();
+
+    /**
+     * @param port The local port to bind, or 0 for any free one.
+     */
+    public UdpEndpoint(int port) throws SocketException {
+        this.socket = new DatagramSocket(port);
+    }
+
+    public void setReceiver(Receiver receiver) {
+        this.receiver = receiver;
+    }
+
+    public int getLocalPort() {
+        return socket.getLocalPort();
+    }
+
+    /**
+     * Make this endpoint behave like a bad network on the way out: drop a
+     * fraction of the packets it sends, and deliver the rest late.
+     * @param lossRate The chance of each packet being dropped, from 0 to 1.
+     * @param latencyMs How long to hold each packet back.
+     * @param jitterMs Up to how much longer to hold it on top of that, at random.
+     */
+    public synchronized void simulate(double lossRate, int latencyMs, int jitterMs) {
+        this.lossRate = lossRate;
+        this.latencyMs = latencyMs;
+        this.jitterMs = jitterMs;
+        if (delayer == null && (latencyMs > 0 || jitterMs > 0)) {
+            delayer = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "UdpEndpoint-shim");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * The sequencing state for an address, created the first time it's asked for.
+     */
+    public UdpPeer peer(SocketAddress address) {
+        return peers.computeIfAbsent(address, UdpPeer::new);
+    }
+
+    /**
+     * Stop tracking an address, e.g. once its player has gone.
+     */
+    public void forget(SocketAddress address) {
+        peers.remove(address);
+    }
+
+    /**
+     * Whether a message fits in a packet on its own. Anything bigger has to
+     * go some other way, i.e. over TCP.
+     */
+    public static boolean fits(Message m) {
+        return HEADER_BYTES + 2 + MessageCodec.encodedSize(m) <= MAX_PACKET_BYTES;
+    }
+
+    /**
+     * Send some messages to a peer in a single packet.
+     * @param peer Who to send to.
+     * @param messages The messages; together they must fit in MAX_PACKET_BYTES.
+     * @return The packet's sequence number, to check with UdpPeer.isAcked later.
+     * @throws IOException If the packet couldn't be sent or the messages don't fit.
+     */
+    public int send(UdpPeer peer, Message... messages) throws IOException {
+        int size = HEADER_BYTES;
+        for (Message m : messages) size += 2 + MessageCodec.encodedSize(m);
+        if (size > MAX_PACKET_BYTES) throw new IOException("Packet too big: " + size + " bytes");
+
+        // Encode everything now: callers may reuse the buffers behind their messages.
+        ByteBuffer out = ByteBuffer.allocate(size);
+        int seq = peer.nextSequence();
+        out.putShort(MAGIC);
+        out.putInt(seq);
+        out.putInt(peer.getRemoteSeq());
+        out.putInt(peer.getReceivedBits());
+        out.put((byte) messages.length);
+        for (Message m : messages) {
+            out.putShort((short) MessageCodec.encodedSize(m));
+            MessageCodec.encode(m, out);
+        }
+
+        DatagramPacket packet = new DatagramPacket(out.array(), size, peer.getAddress());
+        if (lossRate > 0 && shimRandom.nextDouble() < lossRate) return seq;
+        if (delayer != null) {
+            long delay = latencyMs + (jitterMs > 0 ? shimRandom.nextInt(jitterMs) : 0);
+            delayer.schedule(() -> sendQuietly(packet), delay, TimeUnit.MILLISECONDS);
+        } else {
+            socket.send(packet);
+        }
+        return seq;
+    }
+
+    /**
+     * Receive packets until close() is called, handing each message in a
+     * fresh packet to the receiver.
+     */
+    @Override
+    public void run() {
+        DatagramPacket packet = new DatagramPacket(receiveBuffer, receiveBuffer.length);
+        while (running) {
+            try {
+                packet.setLength(receiveBuffer.length);
+                socket.receive(packet);
+                handlePacket(packet);
+            } catch (SocketException e) {
+                if (running) System.err.println("[WARN] UdpEndpoint.run : " + e);
+                return;
+            } catch (IOException e) {
+                System.err.println("[WARN] UdpEndpoint.run : " + e);
+            }
+        }
+    }
+
+    public void close() {
+        running = false;
+        socket.close();
+        synchronized (this) {
+            if (delayer != null) delayer.shutdownNow();
+        }
+    }
+
+    private void handlePacket(DatagramPacket packet) {
+        ByteBuffer in = ByteBuffer.wrap(packet.getData(), packet.getOffset(), packet.getLength());
+        try {
+            if (in.getShort() != MAGIC) return;
+            int seq = in.getInt();
+            int ack = in.getInt();
+            int ackBits = in.getInt();
+            int count = in.get() & 0xFF;
+
+            UdpPeer peer = peer(packet.getSocketAddress());
+            peer.onAck(ack, ackBits);
+            if (!peer.onReceive(seq)) return;
+
+            Receiver receiver = this.receiver;
+            for (int i = 0; i < count; i++) {
+                int length = in.getShort() & 0xFFFF;
+                Message m = MessageCodec.decode(packet.getData(), in.position(), length);
+                in.position(in.position() + length);
+                if (receiver != null) receiver.receive(peer, m);
+            }
+        } catch (BufferUnderflowException | IllegalArgumentException | InvalidObjectException e) {
+            System.err.println("[WARN] UdpEndpoint.handlePacket : Dropping bad packet from " + packet.getSocketAddress() + ": " + e);
+        }
+    }
+
+    private void sendQuietly(DatagramPacket packet) {
+        try {
+            socket.send(packet);
+        } catch (IOException e) {
+            System.err.println("[WARN] UdpEndpoint.sendQuietly : " + e);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package networking;
+
+import java.net.SocketAddress;
+
+/**
+ * A UdpPeer is the sequencing state a UdpEndpoint keeps for one remote
+ * address: the number of the next packet we'll send, the newest packet we've
+ * had from them along with a bitfield of the 32 before it, and which of our
+ * own packets they've told us they received.
+ */
+public class UdpPeer {
+
+    /** How many of our sent packets we remember the ack state of. */
+    private static final int SENT_HISTORY = 256;
+
+    private final SocketAddress address;
+    private int nextSeq = 0;
+    private int remoteSeq = -1;
+    private int receivedBits = 0;
+    private final int[] sentSeqs = new int[SENT_HISTORY];
+    private final boolean[] sentAcked = new boolean[SENT_HISTORY];
+    private volatile long lastReceiveTime = System.currentTimeMillis();
+    private long received = 0;
+    private long stale = 0;
+
+    UdpPeer(SocketAddress address) {
+        this.address = address;
+        for (int i = 0; i < sentSeqs.length; i++) sentSeqs[i] = -1;
+    }
+
+    public SocketAddress getAddress() {
+        return address;
+    }
+
+    /**
+     * Claim the sequence number for a packet we're about to send.
+     */
+    synchronized int nextSequence() {
+        int seq = nextSeq++;
+        int slot = seq % SENT_HISTORY;
+        sentSeqs[slot] = seq;
+        sentAcked[slot] = false;
+        return seq;
+    }
+
+    /** The newest packet we've had from the peer, to ack in our next packet. */
+    synchronized int getRemoteSeq() {
+        return remoteSeq;
+    }
+
+    /** Which of the 32 packets before getRemoteSeq() we had too (bit i is remoteSeq - 1 - i). */
+    synchronized int getReceivedBits() {
+        return receivedBits;
+    }
+
+    /**
+     * Note a packet arriving from the peer.
+     * @param seq The packet's sequence number.
+     * @return Whether it should be delivered: only packets newer than every
+     *         one before them are, since only the newest state matters.
+     */
+    synchronized boolean onReceive(int seq) {
+        lastReceiveTime = System.currentTimeMillis();
+        if (seq <= remoteSeq) {
+            stale++;
+            return false;
+        }
+
+        int gap = seq - remoteSeq;
+        if (remoteSeq < 0 || gap > 32) receivedBits = 0;
+        else receivedBits = (gap == 32 ? 0 : receivedBits << gap) | (1 << (gap - 1));
+        remoteSeq = seq;
+        received++;
+        return true;
+    }
+
+    /**
+     * Take note of the ack header of a packet from the peer.
+     * @param ack The newest of our packets the peer has received.
+     * @param ackBits Which of the 32 packets before that they had too.
+     */
+    synchronized void onAck(int ack, int ackBits) {
+        markAcked(ack);
+        for (int i = 0; i < 32; i++) {
+            if ((ackBits & (1 << i)) != 0) markAcked(ack - 1 - i);
+        }
+    }
+
+    /**
+     * Whether the peer has told us they received one of our packets. Packets
+     * too old to remember count as not acked.
+     * @param seq The sequence number the packet was sent with.
+     */
+    public synchronized boolean isAcked(int seq) {
+        int slot = seq % SENT_HISTORY;
+        return seq >= 0 && sentSeqs[slot] == seq && sentAcked[slot];
+    }
+
+    /** How long it's been since anything arrived from the peer. */
+    public long millisSinceReceive() {
+        return System.currentTimeMillis() - lastReceiveTime;
+    }
+
+    /** Whether anything has arrived from the peer yet. */
+    public synchronized boolean hasReceived() {
+        return remoteSeq >= 0;
+    }
+
+    /** How many packets have been delivered, and how many dropped for arriving out of order. */
+    public synchronized long getReceived() {
+        return received;
+    }
+
+    public synchronized long getStale() {
+        return stale;
+    }
+
+    private void markAcked(int seq) {
+        if (seq < 0) return;
+        int slot = seq % SENT_HISTORY;
+        if (sentSeqs[slot] == seq) sentAcked[slot] = true;
+    }
+}